@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmark;
+
+import com.mihaibojin.props.core.resolvers.PropertyFileResolver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures reads from a {@link PropertyFileResolver} while another thread continuously reloads it.
+ *
+ * <p>Since reloads publish an immutable snapshot, readers never observe a partially updated store
+ * and their latency should match the <code>readOnly</code> baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, warmups = 1)
+public class ConcurrentReloadBenchmarks {
+
+  private static final int KEYS = 10_000;
+
+  /** Holds a resolver backed by a file whose contents alternate between two versions. */
+  @State(Scope.Group)
+  public static class Resolver {
+    Path file;
+    String[] keys = new String[KEYS];
+    String[] contents = new String[2];
+    PropertyFileResolver resolver;
+    int reloads;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      StringBuilder first = new StringBuilder();
+      StringBuilder second = new StringBuilder();
+      for (int i = 0; i < KEYS; i++) {
+        keys[i] = "key" + i;
+        first.append(keys[i]).append("=first\n");
+        second.append(keys[i]).append("=second\n");
+      }
+      contents[0] = first.toString();
+      contents[1] = second.toString();
+
+      file = Files.createTempFile("benchmark", ".properties");
+      Files.writeString(file, contents[0]);
+      resolver = new PropertyFileResolver(file, true);
+      resolver.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /** Tracks the next key to read, for each reader thread. */
+  @State(Scope.Thread)
+  public static class Reader {
+    int next;
+  }
+
+  @Benchmark
+  @Group("readOnly")
+  @GroupThreads(3)
+  public void readWithoutReloads(Resolver state, Reader reader, Blackhole blackhole) {
+    reader.next = (reader.next + 1) % KEYS;
+    blackhole.consume(state.resolver.get(state.keys[reader.next]));
+  }
+
+  @Benchmark
+  @Group("readDuringReload")
+  @GroupThreads(3)
+  public void read(Resolver state, Reader reader, Blackhole blackhole) {
+    reader.next = (reader.next + 1) % KEYS;
+    blackhole.consume(state.resolver.get(state.keys[reader.next]));
+  }
+
+  @Benchmark
+  @Group("readDuringReload")
+  @GroupThreads(1)
+  public void reload(Resolver state, Blackhole blackhole) throws IOException {
+    // alternate the file's contents and ensure that each version is detected as modified
+    state.reloads++;
+    Files.writeString(state.file, state.contents[state.reloads % 2]);
+    Files.setLastModifiedTime(state.file, FileTime.fromMillis(state.reloads * 1000L));
+    blackhole.consume(state.resolver.reload());
+  }
+}
@@ -18,6 +18,7 @@ package benchmark;
 
 import com.mihaibojin.props.core.Prop;
 import com.mihaibojin.props.core.Props;
+import com.mihaibojin.props.core.ReadinessPolicy;
 import com.mihaibojin.props.core.converters.Cast;
 import com.mihaibojin.props.core.resolvers.ClasspathPropertyFileResolver;
 import com.mihaibojin.props.core.resolvers.EnvResolver;
@@ -38,12 +39,16 @@ import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 public class GenericBenchmarks {
@@ -69,6 +74,49 @@ public class GenericBenchmarks {
         .forEach(blackhole::consume);
   }
 
+  /**
+   * Measures the time between creating a {@link Props} registry and reading its first value, which
+   * includes waiting for the initial load (under {@link ReadinessPolicy#BLOCK}).
+   *
+   * <p>Since registries cannot be shut down, each one is only read once and the number of
+   * iterations is kept low; the slowest iteration is the worst-case (p100) first read.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 20)
+  @Fork(value = 1, warmups = 1)
+  public Long readOnStartup(StartupState state) {
+    Props props = state.factory.build();
+    return props.prop("long.0", Cast.asLong()).build().value();
+  }
+
+  /** Configures a new {@link Props} registry for each invocation. */
+  @State(Scope.Benchmark)
+  public static class StartupState {
+    @Param({"BLOCK", "SERVE_DEFAULTS"})
+    ReadinessPolicy readinessPolicy;
+
+    File propFile;
+    Props.Factory factory;
+
+    /** Generates the properties loaded by all registries. */
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+      propFile = File.createTempFile("jmh", "properties");
+      PropsState.generateRandomProperties(propFile, PROP_COUNT);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+      factory =
+          Props.factory()
+              .withResolver(new PropertyFileResolver(propFile.toPath()))
+              .readinessPolicy(readinessPolicy);
+    }
+  }
+
   /** Initialize the {@link Props} registry. */
   @State(Scope.Benchmark)
   public static class PropsState {
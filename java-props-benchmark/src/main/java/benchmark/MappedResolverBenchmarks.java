@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmark;
+
+import com.mihaibojin.props.core.resolvers.MappedPropertyFileResolver;
+import com.mihaibojin.props.core.resolvers.PropertyFileResolver;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link MappedPropertyFileResolver} with {@link PropertyFileResolver}, for loading and
+ * reading large state.
+ *
+ * <p>Run with <code>-prof gc</code> to compare the memory allocated while loading each file.
+ */
+@Fork(value = 1, warmups = 1)
+public class MappedResolverBenchmarks {
+
+  /** Generates a property file and loads it with both resolvers. */
+  @State(Scope.Benchmark)
+  public static class LargeFile {
+    @Param({"1000", "100000"})
+    int size;
+
+    Path file;
+    String[] keys;
+    PropertyFileResolver propertyFileResolver;
+    MappedPropertyFileResolver mappedResolver;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      file = Files.createTempFile("benchmark", ".properties");
+      keys = new String[size];
+      try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+        for (int i = 0; i < size; i++) {
+          keys[i] = "feature.flag." + i + ".enabled";
+          writer.write(keys[i] + "=" + (i % 2 == 0) + "\n");
+        }
+      }
+
+      propertyFileResolver = new PropertyFileResolver(file);
+      propertyFileResolver.reload();
+      mappedResolver = new MappedPropertyFileResolver(file);
+      mappedResolver.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      Files.deleteIfExists(file);
+    }
+
+    /** Returns the next key to look up. */
+    String nextKey() {
+      next = (next + 1) % keys.length;
+      return keys[next];
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void loadPropertyFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(new PropertyFileResolver(state.file).reload());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void loadMappedFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(new MappedPropertyFileResolver(state.file).reload());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupPropertyFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.propertyFileResolver.get(state.nextKey()));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupMappedFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.mappedResolver.get(state.nextKey()));
+  }
+}
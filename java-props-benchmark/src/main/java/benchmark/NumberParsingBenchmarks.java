@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmark;
+
+import com.mihaibojin.props.core.converters.Cast;
+import com.mihaibojin.props.core.converters.Converter;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares the numeric converters with the previous, {@link NumberFormat}-based, parsing. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, warmups = 1)
+public class NumberParsingBenchmarks {
+
+  /** Holds the values to parse. */
+  @State(Scope.Benchmark)
+  public static class Values {
+    String longValue = "1603023215123";
+    String doubleValue = "1603023215.123";
+    Converter<Long> longConverter = Cast.asLong();
+    Converter<Double> doubleConverter = Cast.asDouble();
+  }
+
+  @Benchmark
+  public void numberFormatLong(Values values, Blackhole blackhole) throws ParseException {
+    blackhole.consume(NumberFormat.getInstance().parse(values.longValue).longValue());
+  }
+
+  @Benchmark
+  public void converterLong(Values values, Blackhole blackhole) {
+    blackhole.consume(values.longConverter.decode(values.longValue));
+  }
+
+  @Benchmark
+  public void numberFormatDouble(Values values, Blackhole blackhole) throws ParseException {
+    blackhole.consume(NumberFormat.getInstance().parse(values.doubleValue).doubleValue());
+  }
+
+  @Benchmark
+  public void converterDouble(Values values, Blackhole blackhole) {
+    blackhole.consume(values.doubleConverter.decode(values.doubleValue));
+  }
+}
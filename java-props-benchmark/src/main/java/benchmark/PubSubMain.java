@@ -40,7 +40,8 @@ public class PubSubMain {
   // default sleep duration between phases
   public static final long SLEEP_MILLIS = 10_000;
 
-  // how many subscribers register for updates; set to a large number to overload the common FJ pool
+  // how many subscribers register for updates; all updates are delivered by the registry's
+  // dispatcher, regardless of how many subscribers are registered
   public static final long MAX_SUBSCRIBERS = 250;
 
   // determines which parts of the benchmark run
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package benchmark;
+
+import com.mihaibojin.props.core.Props;
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.resolvers.Resolver;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long a {@link Props} registry takes to load resolvers which block (e.g., on network
+ * I/O), when each of them is reloaded on a dedicated platform thread (the default), or on virtual
+ * threads (<code>Props.Factory#virtualThreads(true)</code>).
+ *
+ * <p>All resolvers are reloaded concurrently by the initial load; since registries cannot be shut
+ * down, each one is only loaded once and the number of iterations is kept low.
+ *
+ * <p>Virtual threads require Java 21 or later; on older JVMs, both modes use platform threads.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, warmups = 1)
+public class ReloadExecutorBenchmarks {
+
+  /** Configures registries whose resolvers' reloads block for a fixed duration. */
+  @State(Scope.Benchmark)
+  public static class Registry {
+    @Param({"4", "64"})
+    int resolverCount;
+
+    @Param({"1", "10"})
+    long blockingMillis;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    Props.Factory factory;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+      List<Resolver> resolvers = new ArrayList<>(resolverCount);
+      for (int i = 0; i < resolverCount; i++) {
+        resolvers.add(new BlockingResolver("blocking" + i, blockingMillis));
+      }
+
+      // only the initial load is measured
+      factory =
+          Props.factory()
+              .withResolvers(resolvers)
+              .refreshInterval(Duration.ofDays(1))
+              .virtualThreads(virtualThreads);
+    }
+  }
+
+  @Benchmark
+  public Props initialLoad(Registry registry) {
+    return registry.factory.buildAsync().join();
+  }
+
+  /** A resolver whose reloads block for a fixed duration. */
+  private static class BlockingResolver implements Resolver {
+    private final String id;
+    private final long blockingMillis;
+
+    private BlockingResolver(String id, long blockingMillis) {
+      this.id = id;
+      this.blockingMillis = blockingMillis;
+    }
+
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Override
+    @Nullable
+    public String get(String key) {
+      return id.equals(key) ? id : null;
+    }
+
+    @Override
+    public Set<String> reload() {
+      try {
+        Thread.sleep(blockingMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Set.of(id);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmark;
+
+import com.mihaibojin.props.core.resolvers.BinarySnapshot;
+import com.mihaibojin.props.core.resolvers.ResolverUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Compiles a <code>.properties</code> file into a {@link BinarySnapshot}, which can be served by a
+ * {@link com.mihaibojin.props.core.resolvers.BinarySnapshotResolver}.
+ *
+ * <p>Usage: <code>SnapshotCompiler &lt;input.properties&gt; &lt;output.snapshot&gt;</code>
+ */
+public class SnapshotCompiler {
+
+  /** Main entry point. */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: SnapshotCompiler <input.properties> <output.snapshot>");
+      System.exit(2);
+    }
+
+    Path input = Path.of(args[0]);
+    Path output = Path.of(args[1]);
+
+    long start = System.nanoTime();
+    Map<String, String> properties;
+    try (InputStream stream = Files.newInputStream(input)) {
+      properties = ResolverUtils.loadPropertiesFromStream(stream);
+    }
+    BinarySnapshot.write(properties, output);
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    System.out.printf(
+        "Compiled %d properties from %s into %s (%d bytes) in %dms%n",
+        properties.size(), input, output, Files.size(output), elapsedMillis);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmark;
+
+import com.mihaibojin.props.core.Props;
+import com.mihaibojin.props.core.resolvers.BinarySnapshot;
+import com.mihaibojin.props.core.resolvers.BinarySnapshotResolver;
+import com.mihaibojin.props.core.resolvers.PropertyFileResolver;
+import com.mihaibojin.props.core.resolvers.Resolver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link BinarySnapshotResolver} with {@link PropertyFileResolver}, for loading and
+ * reading the same properties, both directly and when registered in a {@link Props} registry.
+ *
+ * <p>Since registries cannot be shut down, each registry is only loaded once (in single-shot mode)
+ * and the number of iterations is kept low.
+ */
+@Fork(value = 1, warmups = 1)
+public class SnapshotResolverBenchmarks {
+
+  /** Generates a property file and its compiled snapshot, and loads them. */
+  @State(Scope.Benchmark)
+  public static class LargeFile {
+    @Param({"1000", "100000"})
+    int size;
+
+    Path propertyFile;
+    Path snapshotFile;
+    String[] keys;
+    PropertyFileResolver propertyFileResolver;
+    BinarySnapshotResolver snapshotResolver;
+    Props propertyFileProps;
+    Props snapshotProps;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+      keys = new String[size];
+      Map<String, String> properties = new HashMap<>();
+      StringBuilder contents = new StringBuilder();
+      for (int i = 0; i < size; i++) {
+        keys[i] = "feature.flag." + i + ".enabled";
+        properties.put(keys[i], String.valueOf(i % 2 == 0));
+        contents.append(keys[i]).append('=').append(i % 2 == 0).append('\n');
+      }
+
+      propertyFile = Files.createTempFile("benchmark", ".properties");
+      Files.writeString(propertyFile, contents);
+      snapshotFile = Files.createTempFile("benchmark", ".snapshot");
+      BinarySnapshot.write(properties, snapshotFile);
+
+      propertyFileResolver = new PropertyFileResolver(propertyFile);
+      propertyFileResolver.reload();
+      snapshotResolver = new BinarySnapshotResolver(snapshotFile);
+      snapshotResolver.reload();
+
+      propertyFileProps = loadProps(new PropertyFileResolver(propertyFile));
+      snapshotProps = loadProps(new BinarySnapshotResolver(snapshotFile));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      Files.deleteIfExists(propertyFile);
+      Files.deleteIfExists(snapshotFile);
+    }
+
+    /** Returns the next key to look up. */
+    String nextKey() {
+      next = (next + 1) % keys.length;
+      return keys[next];
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void loadPropertyFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(new PropertyFileResolver(state.propertyFile).reload());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void loadSnapshot(LargeFile state, Blackhole blackhole) {
+    BinarySnapshotResolver resolver = new BinarySnapshotResolver(state.snapshotFile);
+    resolver.reload();
+    blackhole.consume(resolver);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupPropertyFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.propertyFileResolver.get(state.nextKey()));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupSnapshot(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.snapshotResolver.get(state.nextKey()));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 20)
+  public Props loadPropsFromPropertyFile(LargeFile state) {
+    return loadProps(new PropertyFileResolver(state.propertyFile));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 5)
+  @Measurement(iterations = 20)
+  public Props loadPropsFromSnapshot(LargeFile state) {
+    return loadProps(new BinarySnapshotResolver(state.snapshotFile));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupPropsFromPropertyFile(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.propertyFileProps.prop(state.nextKey()).value());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void lookupPropsFromSnapshot(LargeFile state, Blackhole blackhole) {
+    blackhole.consume(state.snapshotProps.prop(state.nextKey()).value());
+  }
+
+  /** Creates a registry backed by the specified resolver and waits for its initial load. */
+  private static Props loadProps(Resolver resolver) {
+    return Props.factory().withResolver(resolver).buildAsync().join();
+  }
+}
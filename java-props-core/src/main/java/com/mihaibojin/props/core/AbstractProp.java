@@ -21,11 +21,17 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import com.mihaibojin.props.core.annotations.Nullable;
-import java.util.concurrent.SubmissionPublisher;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Consumer;
 
 public abstract class AbstractProp<T> implements Prop<T> {
+  @SuppressWarnings("rawtypes")
+  private static final AtomicLongFieldUpdater<AbstractProp> VERSION =
+      AtomicLongFieldUpdater.newUpdater(AbstractProp.class, "version");
 
   public final String key;
   @Nullable private final T defaultValue;
@@ -34,6 +40,15 @@ public abstract class AbstractProp<T> implements Prop<T> {
   private final boolean isSecret;
   //  deepcode ignore AvoidUsingVolatile: support high-concurrency scenarios
   @Nullable private volatile T currentValue;
+  //  deepcode ignore AvoidUsingVolatile: allows checking for updates with a single read
+  private volatile long version;
+  // replaced when a subscriber is added, so that each update can be delivered to the subscribers
+  // which were registered when it was published
+  //  deepcode ignore AvoidUsingVolatile: allows reading all subscribers with a single read
+  private volatile List<OnUpdateSubscriber<T>> subscribers = List.of();
+  private final List<BufferedSubscriber<T>> bufferedSubscribers = new CopyOnWriteArrayList<>();
+  //  deepcode ignore AvoidUsingVolatile: assigned when the prop is bound to a registry
+  @Nullable private volatile UpdateDispatcher dispatcher;
 
   /**
    * Constructs a new property class.
@@ -90,13 +105,78 @@ public abstract class AbstractProp<T> implements Prop<T> {
     try {
       validateBeforeSet(updateValue);
     } catch (RuntimeException e) {
-      publisher().closeExceptionally(e);
+      publish(null, e);
       throw e;
     }
 
     currentValue = updateValue;
+    afterSet(updateValue);
+    // incremented after the value (and any state derived from it) is set, so that readers of a
+    // version observe its value
+    VERSION.incrementAndGet(this);
 
-    publisher().submit(updateValue);
+    publish(updateValue, null);
+  }
+
+  /** Sets the {@link UpdateDispatcher} which delivers this prop's updates to its subscribers. */
+  void dispatcher(UpdateDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  /** Publishes the updated value (or error) to all subscribers. */
+  private void publish(@Nullable T value, @Nullable Throwable error) {
+    UpdateDispatcher dispatcher = this.dispatcher;
+    if (dispatcher == null) {
+      return;
+    }
+
+    // subscribers with their own buffers are notified first, since they rarely block
+    for (BufferedSubscriber<T> subscriber : bufferedSubscribers) {
+      subscriber.offer(dispatcher, value, error);
+    }
+
+    List<OnUpdateSubscriber<T>> subscribers = this.subscribers;
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    for (OnUpdateSubscriber<T> subscriber : subscribers) {
+      subscriber.metrics().addQueued(1);
+    }
+    if (error != null) {
+      dispatcher.publishError(this, subscribers, error);
+    } else {
+      dispatcher.publish(this, subscribers, value);
+    }
+  }
+
+  /**
+   * Notifies the specified subscribers of the updated value (or error); called by the {@link
+   * UpdateDispatcher}.
+   */
+  void deliver(
+      List<OnUpdateSubscriber<T>> subscribers,
+      @Nullable T value,
+      @Nullable Throwable error,
+      long publishedNanos) {
+    for (OnUpdateSubscriber<T> subscriber : subscribers) {
+      subscriber.metrics().addQueued(-1);
+      subscriber.deliver(value, error, publishedNanos);
+    }
+  }
+
+  /**
+   * Called after the property's value was updated, but before any subscribers are notified.
+   *
+   * <p>This method can be overridden by subclasses which need to derive state from the current
+   * value (e.g., to store it in an unboxed field).
+   */
+  //  deepcode ignore EmptyMethodInAbstractClassShouldBeAbstract: method intentionally left empty
+  protected void afterSet(@Nullable T value) {}
+
+  /** Returns the number of times this prop's value was updated. */
+  @Override
+  public long version() {
+    return version;
   }
 
   /** Retrieve this property's value. */
@@ -121,29 +201,62 @@ public abstract class AbstractProp<T> implements Prop<T> {
     return value;
   }
 
-  private final AtomicReference<SubmissionPublisher<T>> publisher = new AtomicReference<>();
+  /** Registers value and error consumers, which are called every time the prop is updated. */
+  @Override
+  public void onUpdate(Consumer<T> consumer, Consumer<Throwable> errConsumer) {
+    onUpdate(consumer, errConsumer, DeliveryMode.EVERY_UPDATE);
+  }
 
-  /** Returns the {@link SubmissionPublisher} instance to use for the current Prop. */
-  @SuppressWarnings("NullAway")
-  private SubmissionPublisher<T> publisher() {
-    SubmissionPublisher<T> pub = publisher.get();
-    if (isNull(pub)) {
-      pub = new SubmissionPublisher<>();
-      if (!publisher.compareAndSet(null, pub)) {
-        // if we've failed to set it, another thread has done so
-        // retrieve the latest and most correct value
-        pub = publisher.get();
-      }
+  /**
+   * Registers value and error consumers, which are called when the prop is updated, according to
+   * the specified {@link DeliveryMode}.
+   */
+  @Override
+  public void onUpdate(
+      Consumer<T> consumer, Consumer<Throwable> errConsumer, DeliveryMode deliveryMode) {
+    OnUpdateSubscriber<T> subscriber = new OnUpdateSubscriber<>(key, consumer, errConsumer);
+    if (deliveryMode == DeliveryMode.LATEST_VALUE) {
+      bufferedSubscribers.add(new ConflatingSubscriber<>(key, subscriber));
+    } else {
+      addSubscriber(subscriber);
     }
+  }
 
-    // NullAway does not like the code above, as it wrongly assumes publisher.get() can return null
-    return pub;
+  /** Adds a subscriber which is notified of every update, via the {@link UpdateDispatcher}. */
+  private synchronized void addSubscriber(OnUpdateSubscriber<T> subscriber) {
+    List<OnUpdateSubscriber<T>> updated = new ArrayList<>(subscribers);
+    updated.add(subscriber);
+    subscribers = Collections.unmodifiableList(updated);
   }
 
-  /** Registers value and error consumers, which are called every time the prop is updated. */
+  /**
+   * Registers value and error consumers, which are called when the prop is updated, buffering up
+   * to <code>bufferSize</code> updates and applying the specified {@link OverflowPolicy} once the
+   * buffer is full.
+   *
+   * @throws IllegalArgumentException if the buffer size is not positive
+   */
   @Override
-  public void onUpdate(Consumer<T> consumer, Consumer<Throwable> errConsumer) {
-    publisher().subscribe(new OnUpdateSubscriber<>(consumer, errConsumer));
+  public SubscriptionMetrics onUpdate(
+      Consumer<T> consumer,
+      Consumer<Throwable> errConsumer,
+      OverflowPolicy overflowPolicy,
+      int bufferSize) {
+    OnUpdateSubscriber<T> subscriber = new OnUpdateSubscriber<>(key, consumer, errConsumer);
+    if (overflowPolicy == OverflowPolicy.CONFLATE) {
+      bufferedSubscribers.add(new ConflatingSubscriber<>(key, subscriber));
+    } else {
+      bufferedSubscribers.add(new QueuedSubscriber<>(key, subscriber, overflowPolicy, bufferSize));
+    }
+    return subscriber.metrics();
+  }
+
+  /** Returns the metrics of all this prop's subscribers, in the order they subscribed. */
+  public List<SubscriptionMetrics> subscriptionMetrics() {
+    List<SubscriptionMetrics> metrics = new ArrayList<>();
+    subscribers.forEach(s -> metrics.add(s.metrics()));
+    bufferedSubscribers.forEach(s -> metrics.add(s.metrics()));
+    return metrics;
   }
 
   @Override
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+
+/**
+ * A subscriber which buffers its own updates and schedules their delivery on the {@link
+ * UpdateDispatcher}, according to its {@link OverflowPolicy}.
+ */
+interface BufferedSubscriber<T> {
+
+  /** Buffers the update and schedules its delivery. */
+  void offer(UpdateDispatcher dispatcher, @Nullable T value, @Nullable Throwable error);
+
+  /** Returns the subscriber's metrics. */
+  SubscriptionMetrics metrics();
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+
+/** Point-in-time statistics of the cache used for ad hoc reads, which can help size it. */
+public final class CacheStats {
+
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final int size;
+
+  CacheStats(long hits, long misses, long evictions, int size) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.size = size;
+  }
+
+  /** Returns the number of reads which were served from the cache. */
+  public long hits() {
+    return hits;
+  }
+
+  /** Returns the number of reads which had to decode a value. */
+  public long misses() {
+    return misses;
+  }
+
+  /** Returns the number of entries which were evicted, to keep the cache within its bounds. */
+  public long evictions() {
+    return evictions;
+  }
+
+  /** Returns the number of entries currently held in the cache. */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return format(
+        "CacheStats{hits=%d, misses=%d, evictions=%d, size=%d}", hits, misses, evictions, size);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds all the (bound) {@link Prop}s whose values changed during a single refresh of a {@link
+ * Props} registry.
+ *
+ * @see Props#onChanges(java.util.function.Consumer)
+ */
+public final class ChangeBatch {
+
+  private final Map<String, Change<?>> changes;
+
+  ChangeBatch(List<Change<?>> changes) {
+    Map<String, Change<?>> byKey = new LinkedHashMap<>();
+    for (Change<?> change : changes) {
+      byKey.put(change.prop.key(), change);
+    }
+    this.changes = Collections.unmodifiableMap(byKey);
+  }
+
+  /** Returns all the changes, keyed by their prop's key. */
+  public Map<String, Change<?>> changes() {
+    return changes;
+  }
+
+  /** Returns the change for the specified key, or <code>null</code> if it did not change. */
+  @Nullable
+  public Change<?> get(String key) {
+    return changes.get(key);
+  }
+
+  /** Returns the number of changed props. */
+  public int size() {
+    return changes.size();
+  }
+
+  @Override
+  public String toString() {
+    return format("ChangeBatch%s", changes.values());
+  }
+
+  /** Describes a prop's value change. */
+  public static final class Change<T> {
+    private final Prop<T> prop;
+    @Nullable private final T oldValue;
+    @Nullable private final T newValue;
+    @Nullable private final String resolverId;
+
+    Change(Prop<T> prop, @Nullable T oldValue, @Nullable T newValue, @Nullable String resolverId) {
+      this.prop = prop;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+      this.resolverId = resolverId;
+    }
+
+    /** Returns the prop whose value changed. */
+    public Prop<T> prop() {
+      return prop;
+    }
+
+    /** Returns the prop's previous value, or <code>null</code> if it was not set. */
+    @Nullable
+    public T oldValue() {
+      return oldValue;
+    }
+
+    /** Returns the prop's new value, or <code>null</code> if it was unset. */
+    @Nullable
+    public T newValue() {
+      return newValue;
+    }
+
+    /**
+     * Returns the id of the resolver which provided the new value, or <code>null</code> if the
+     * value was unset.
+     */
+    @Nullable
+    public String resolverId() {
+      return resolverId;
+    }
+
+    @Override
+    public String toString() {
+      if (prop.isSecret()) {
+        return format("%s=<redacted> (%s)", prop.key(), resolverId);
+      }
+      return format("%s: %s -> %s (%s)", prop.key(), oldValue, newValue, resolverId);
+    }
+  }
+}
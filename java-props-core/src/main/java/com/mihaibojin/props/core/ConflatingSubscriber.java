@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers only the latest update to a subscriber (see {@link DeliveryMode#LATEST_VALUE}).
+ *
+ * <p>Each subscriber holds a single pending update, which is replaced by newer updates, and has at
+ * most one delivery scheduled on the {@link UpdateDispatcher} at any time.
+ */
+final class ConflatingSubscriber<T> implements BufferedSubscriber<T>, Runnable {
+
+  private final String key;
+  private final OnUpdateSubscriber<T> subscriber;
+  private final AtomicReference<Pending<T>> latest = new AtomicReference<>();
+  private final AtomicBoolean isScheduled = new AtomicBoolean();
+
+  ConflatingSubscriber(String key, OnUpdateSubscriber<T> subscriber) {
+    this.key = key;
+    this.subscriber = subscriber;
+  }
+
+  /** Replaces the pending update and schedules a delivery, if one is not already scheduled. */
+  @Override
+  public void offer(UpdateDispatcher dispatcher, @Nullable T value, @Nullable Throwable error) {
+    Pending<T> replaced = latest.getAndSet(new Pending<>(value, error, System.nanoTime()));
+    if (replaced != null) {
+      subscriber.metrics().recordDrop();
+    } else {
+      subscriber.metrics().addQueued(1);
+    }
+    if (isScheduled.compareAndSet(false, true)) {
+      dispatcher.schedule(key, this);
+    }
+  }
+
+  /** Delivers the pending update; called by the {@link UpdateDispatcher}. */
+  @Override
+  public void run() {
+    do {
+      Pending<T> pending;
+      while ((pending = latest.getAndSet(null)) != null) {
+        subscriber.metrics().addQueued(-1);
+        subscriber.deliver(pending.value, pending.error, pending.publishedNanos);
+      }
+      isScheduled.set(false);
+
+      // an update may have been offered after the last delivery, but before the flag was reset
+    } while (latest.get() != null && isScheduled.compareAndSet(false, true));
+  }
+
+  @Override
+  public SubscriptionMetrics metrics() {
+    return subscriber.metrics();
+  }
+
+  /** Holds an undelivered value (or error). */
+  private static final class Pending<T> {
+    @Nullable private final T value;
+    @Nullable private final Throwable error;
+    private final long publishedNanos;
+
+    private Pending(@Nullable T value, @Nullable Throwable error, long publishedNanos) {
+      this.value = value;
+      this.error = error;
+      this.publishedNanos = publishedNanos;
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.util.Objects.isNull;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.converters.Converter;
+import com.mihaibojin.props.core.converters.ImmutableDoubleArray;
+import com.mihaibojin.props.core.converters.ImmutableIntArray;
+import com.mihaibojin.props.core.converters.ImmutableLongArray;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of decoded values, used by {@link Props} when values are read ad hoc (without
+ * binding a {@link Prop}).
+ *
+ * <p>Entries are keyed by (key, {@link Converter}, resolverId) and remember the raw string they
+ * were decoded from. A cached value is only returned if the raw string is unchanged, which means
+ * that a concurrent refresh can never cause a stale value to be served; {@link #invalidate(Set)}
+ * merely releases memory for keys which are known to have changed.
+ *
+ * <p>Converters are compared by identity, so callers should reuse the same {@link Converter}
+ * object for each type.
+ *
+ * <p>Since cached values are shared by all callers, only values of known immutable types (e.g.,
+ * strings, boxed primitives, {@link Duration}s, or lists created by {@link List#of()}) are cached;
+ * all other values (e.g., {@link java.util.Date}s) are decoded on every read.
+ *
+ * <p>Entries are indexed by their key, so that invalidating a key only touches the values cached
+ * for it. When the cache is full, an entry is evicted using the CLOCK algorithm: entries occupy the
+ * slots of a circular buffer, and a hand sweeps over them, evicting the first one which was not
+ * read since the hand last passed it. Reads are lock-free; adding entries is serialized, but only
+ * happens after a value was decoded.
+ */
+final class DecodedValueCache {
+
+  private static final Set<Class<?>> IMMUTABLE_TYPES =
+      Set.of(
+          String.class,
+          Boolean.class,
+          Character.class,
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          Duration.class,
+          Instant.class,
+          ImmutableIntArray.class,
+          ImmutableLongArray.class,
+          ImmutableDoubleArray.class,
+          // the implementations returned by List.of(...)
+          List.of().getClass(),
+          List.of(0).getClass());
+
+  private final int maxSize;
+  private final ConcurrentHashMap<String, Map<CacheKey, Entry>> store = new ConcurrentHashMap<>();
+  // the slots of the CLOCK; guarded by this
+  private final Entry[] clock;
+  private int hand;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Constructs a cache which can hold up to <code>maxSize</code> entries; a value of 0 disables
+   * caching.
+   *
+   * @throws IllegalArgumentException if <code>maxSize</code> is negative
+   */
+  DecodedValueCache(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("The cache size cannot be negative: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.clock = new Entry[maxSize];
+  }
+
+  /**
+   * Returns the value obtained by decoding <code>raw</code> with the specified <code>converter
+   * </code>, from the cache if possible.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  <T> T decode(String key, Converter<T> converter, @Nullable String resolverId, String raw) {
+    if (maxSize == 0) {
+      return converter.decode(raw);
+    }
+
+    CacheKey cacheKey = new CacheKey(key, converter, resolverId);
+    Map<CacheKey, Entry> entries = store.get(key);
+    Entry entry = isNull(entries) ? null : entries.get(cacheKey);
+    // only serve values decoded from the same raw string
+    if (!isNull(entry) && (entry.raw == raw || entry.raw.equals(raw))) {
+      if (!entry.isReferenced) {
+        entry.isReferenced = true;
+      }
+      hits.increment();
+      return (T) entry.decoded;
+    }
+
+    misses.increment();
+    T decoded = converter.decode(raw);
+    if (!isImmutable(decoded)) {
+      // mutable values cannot be shared between callers
+      return decoded;
+    }
+    add(new Entry(cacheKey, raw, decoded));
+    return decoded;
+  }
+
+  /** Returns true if the specified value (and any elements it holds) cannot be modified. */
+  private static boolean isImmutable(@Nullable Object value) {
+    if (isNull(value) || value instanceof Enum || value instanceof Path) {
+      return true;
+    }
+    if (!IMMUTABLE_TYPES.contains(value.getClass())) {
+      return false;
+    }
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (!isImmutable(element)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Discards all the cached values for the specified keys; the slots they occupied are reclaimed
+   * when the CLOCK's hand reaches them.
+   */
+  void invalidate(Set<String> keys) {
+    if (maxSize == 0 || store.isEmpty()) {
+      return;
+    }
+
+    for (String key : keys) {
+      store.remove(key);
+    }
+  }
+
+  /** Returns a snapshot of this cache's statistics. */
+  CacheStats stats() {
+    int size = 0;
+    for (Map<CacheKey, Entry> entries : store.values()) {
+      size += entries.size();
+    }
+    return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+  }
+
+  /**
+   * Adds the specified entry, replacing any value previously cached for the same {@link CacheKey}
+   * in its slot.
+   *
+   * <p>Otherwise, the entry is added in the slot under the CLOCK's hand, which is advanced until it
+   * finds a slot which is free, holds an entry which is no longer cached (i.e., it was invalidated
+   * or replaced), or holds an entry which was not read since the hand last passed it; the latter is
+   * evicted.
+   */
+  private synchronized void add(Entry added) {
+    Map<CacheKey, Entry> entries = store.get(added.cacheKey.key);
+    if (!isNull(entries)) {
+      Entry replaced = entries.get(added.cacheKey);
+      if (!isNull(replaced) && clock[replaced.slot] == replaced) {
+        added.slot = replaced.slot;
+        clock[added.slot] = added;
+        entries.put(added.cacheKey, added);
+        return;
+      }
+    }
+
+    while (true) {
+      Entry occupant = clock[hand];
+      if (isNull(occupant) || !isCached(occupant)) {
+        break;
+      }
+      if (!occupant.isReferenced) {
+        remove(occupant);
+        evictions.increment();
+        break;
+      }
+
+      // give the entry a second chance
+      occupant.isReferenced = false;
+      hand = (hand + 1) % clock.length;
+    }
+
+    added.slot = hand;
+    clock[hand] = added;
+    hand = (hand + 1) % clock.length;
+    store
+        .computeIfAbsent(added.cacheKey.key, k -> new ConcurrentHashMap<>())
+        .put(added.cacheKey, added);
+  }
+
+  /** Returns true if the specified entry is still cached. */
+  private boolean isCached(Entry entry) {
+    Map<CacheKey, Entry> entries = store.get(entry.cacheKey.key);
+    return !isNull(entries) && entries.get(entry.cacheKey) == entry;
+  }
+
+  /** Removes the specified entry, as well as its key's index, if no other entries remain. */
+  private void remove(Entry entry) {
+    Map<CacheKey, Entry> entries = store.get(entry.cacheKey.key);
+    if (!isNull(entries) && entries.remove(entry.cacheKey, entry) && entries.isEmpty()) {
+      store.remove(entry.cacheKey.key, entries);
+    }
+  }
+
+  /** Identifies a decoded value. */
+  private static final class CacheKey {
+    private final String key;
+    private final Converter<?> converter;
+    @Nullable private final String resolverId;
+
+    private CacheKey(String key, Converter<?> converter, @Nullable String resolverId) {
+      this.key = key;
+      this.converter = converter;
+      this.resolverId = resolverId;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return converter == other.converter
+          && key.equals(other.key)
+          && Objects.equals(resolverId, other.resolverId);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = key.hashCode();
+      result = 31 * result + System.identityHashCode(converter);
+      return 31 * result + Objects.hashCode(resolverId);
+    }
+  }
+
+  /** Holds a decoded value and the raw string it was decoded from. */
+  private static final class Entry {
+    private final CacheKey cacheKey;
+    private final String raw;
+    @Nullable private final Object decoded;
+    // set when the value is read and cleared by the CLOCK's hand; races only affect which entry is
+    // evicted, hence the field is not volatile
+    private boolean isReferenced;
+    // the CLOCK slot which holds this entry; guarded by the cache
+    private int slot;
+
+    private Entry(CacheKey cacheKey, String raw, @Nullable Object decoded) {
+      this.cacheKey = cacheKey;
+      this.raw = raw;
+      this.decoded = decoded;
+    }
+  }
+}
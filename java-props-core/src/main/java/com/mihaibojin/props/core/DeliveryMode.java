@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+/** Determines which of a {@link Prop}'s updates are delivered to a subscriber. */
+public enum DeliveryMode {
+  /**
+   * Every update is delivered, in order; if the subscriber is slow, updates are queued by the
+   * {@link UpdateDispatcher}, without blocking publishers, and are dropped (and counted by {@link
+   * SubscriptionMetrics#dropped()}) once its buffers are full.
+   */
+  EVERY_UPDATE,
+
+  /**
+   * Only the most recent update is delivered; updates which arrive while the subscriber is busy
+   * replace any undelivered ones. Suitable for slow subscribers, since at most one update is
+   * queued.
+   */
+  LATEST_VALUE,
+}
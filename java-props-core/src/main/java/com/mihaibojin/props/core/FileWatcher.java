@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.isNull;
+import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
+
+import com.mihaibojin.props.core.resolvers.Resolver;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Watches the paths returned by {@link Resolver#watchedPaths()} and signals which resolvers should
+ * be reloaded, as soon as any of their files change.
+ *
+ * <p>Since a {@link WatchService} can only watch directories, files are watched via their parent
+ * directory and events for other files in the same directory are ignored. Events received in
+ * quick succession (e.g., an editor writing a file in multiple steps) are coalesced into a single
+ * signal, which is sent at most 50ms after the first event, even if events keep arriving.
+ *
+ * <p>Files mounted from a Kubernetes ConfigMap or Secret are symbolic links into a <code>..data
+ * </code> directory, which is swapped atomically on updates; since no events are generated for the
+ * files themselves, any change to the <code>..data</code> entry signals all the files watched in
+ * its parent directory.
+ *
+ * <p>Paths which cannot be watched are logged and skipped; the resolvers which own them are still
+ * reloaded by the periodic refresh.
+ */
+final class FileWatcher implements AutoCloseable {
+
+  private static final Logger log = Logger.getLogger(FileWatcher.class.getName());
+  private static final long COALESCE_WINDOW_MILLIS = 50;
+  private static final Path ATOMIC_DATA_LINK = Path.of("..data");
+
+  private final WatchService watchService;
+  private final Consumer<Set<String>> onChange;
+  private final Map<WatchKey, Path> directories = new HashMap<>();
+  private final Map<Path, Set<String>> directoryWatchers = new HashMap<>();
+  private final Map<Path, Set<String>> fileWatchers = new HashMap<>();
+  private final Map<Path, Set<String>> fileWatchersByDirectory = new HashMap<>();
+  private final Set<String> allWatchers = new HashSet<>();
+  private final Thread thread;
+
+  /**
+   * Registers all the paths watched by the specified resolvers and starts a daemon thread which
+   * calls <code>onChange</code> with the ids of the resolvers whose paths have changed.
+   *
+   * @throws IOException if a {@link WatchService} cannot be created
+   */
+  FileWatcher(Map<String, Resolver> resolvers, Consumer<Set<String>> onChange) throws IOException {
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.onChange = onChange;
+
+    for (Entry<String, Resolver> entry : resolvers.entrySet()) {
+      if (!entry.getValue().isReloadable()) {
+        continue;
+      }
+      for (Path path : entry.getValue().watchedPaths()) {
+        register(entry.getKey(), path.toAbsolutePath().normalize());
+      }
+    }
+
+    thread = new Thread(this::run, "props-file-watcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Watches the specified path (a file or a directory) on behalf of the specified resolver. */
+  private void register(String resolverId, Path path) {
+    boolean isDirectory = Files.isDirectory(path);
+    Path directory = isDirectory ? path : path.getParent();
+    if (isNull(directory)) {
+      log.warning(() -> format("Cannot watch %s for %s; relying on polling", path, resolverId));
+      return;
+    }
+
+    try {
+      WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      directories.put(key, directory);
+    } catch (IOException e) {
+      log.log(
+          WARNING, e, () -> format("Cannot watch %s for %s; relying on polling", path, resolverId));
+      return;
+    }
+
+    Map<Path, Set<String>> watchers = isDirectory ? directoryWatchers : fileWatchers;
+    watchers.computeIfAbsent(path, p -> new HashSet<>()).add(resolverId);
+    if (!isDirectory) {
+      fileWatchersByDirectory.computeIfAbsent(directory, p -> new HashSet<>()).add(resolverId);
+    }
+    allWatchers.add(resolverId);
+  }
+
+  /** Waits for events and signals the resolvers which should be reloaded. */
+  private void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<String> signalled = new HashSet<>();
+        process(watchService.take(), signalled);
+
+        // coalesce any events received shortly after the first one; the window is not extended by
+        // later events, ensuring that steady writes cannot postpone the signal indefinitely
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW_MILLIS);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+          WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+          if (isNull(key)) {
+            break;
+          }
+          process(key, signalled);
+        }
+
+        if (!signalled.isEmpty()) {
+          onChange.accept(signalled);
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      // the watcher was closed
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      log.log(SEVERE, e, () -> "Unexpected error while watching files; relying on polling");
+    }
+  }
+
+  /** Determines which resolvers are interested in the events signalled by the specified key. */
+  private void process(WatchKey key, Set<String> signalled) {
+    Path directory = directories.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        // events were lost, reload everything
+        signalled.addAll(allWatchers);
+        continue;
+      }
+      if (isNull(directory)) {
+        continue;
+      }
+
+      signalled.addAll(directoryWatchers.getOrDefault(directory, Set.of()));
+      Path name = (Path) event.context();
+      if (ATOMIC_DATA_LINK.equals(name)) {
+        // the files in this directory may have been swapped atomically
+        signalled.addAll(fileWatchersByDirectory.getOrDefault(directory, Set.of()));
+      }
+      signalled.addAll(fileWatchers.getOrDefault(directory.resolve(name), Set.of()));
+    }
+    key.reset();
+  }
+
+  /** Stops watching for changes. */
+  @Override
+  public void close() {
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      log.log(WARNING, e, () -> "Could not close the file watcher");
+    }
+    thread.interrupt();
+  }
+}
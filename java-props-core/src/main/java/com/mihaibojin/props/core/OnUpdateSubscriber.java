@@ -17,46 +17,65 @@
 package com.mihaibojin.props.core;
 
 import static java.lang.String.format;
+import static java.util.logging.Level.SEVERE;
 
-import java.util.concurrent.Flow;
-import java.util.concurrent.Flow.Subscriber;
-import java.util.concurrent.Flow.Subscription;
+import com.mihaibojin.props.core.annotations.Nullable;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
-/** {@link Subscriber} implementation for {@link Prop} updates. */
-public class OnUpdateSubscriber<T> implements Subscriber<T> {
+/** Holds the consumers registered via {@link Prop#onUpdate(Consumer, Consumer)}. */
+final class OnUpdateSubscriber<T> {
   private static final Logger log = Logger.getLogger(OnUpdateSubscriber.class.getName());
 
   private final Consumer<T> consumer;
   private final Consumer<Throwable> errConsumer;
-  private Flow.Subscription subscription;
+  private final SubscriptionMetrics metrics;
 
-  @SuppressWarnings("NullAway")
-  public OnUpdateSubscriber(Consumer<T> consumer, Consumer<Throwable> errConsumer) {
+  OnUpdateSubscriber(String key, Consumer<T> consumer, Consumer<Throwable> errConsumer) {
     this.consumer = consumer;
     this.errConsumer = errConsumer;
+    this.metrics = new SubscriptionMetrics(key);
   }
 
-  @Override
-  public void onSubscribe(Subscription subscription) {
-    this.subscription = subscription;
-    subscription.request(1);
+  SubscriptionMetrics metrics() {
+    return metrics;
   }
 
-  @Override
-  public void onNext(T item) {
-    consumer.accept(item);
-    subscription.request(1);
+  /**
+   * Delivers the value (or error) published at the specified time (see {@link System#nanoTime()})
+   * and records the delivery's metrics.
+   */
+  void deliver(@Nullable T value, @Nullable Throwable error, long publishedNanos) {
+    long start = System.nanoTime();
+    if (error != null) {
+      onError(error);
+    } else {
+      onNext(value);
+    }
+    metrics.recordDelivery(publishedNanos, start, System.nanoTime());
   }
 
-  @Override
-  public void onError(Throwable throwable) {
-    errConsumer.accept(throwable);
+  /**
+   * Passes the updated value to the consumer; anything it throws (including errors, which would
+   * otherwise leave buffered subscribers unable to schedule further deliveries) is passed to the
+   * error consumer.
+   */
+  @SuppressWarnings("NullAway")
+  void onNext(@Nullable T item) {
+    // values are null if the prop was unset
+    try {
+      consumer.accept(item);
+    } catch (Throwable t) {
+      onError(t);
+    }
   }
 
-  @Override
-  public void onComplete() {
-    log.info(() -> format("No more items in subscription %s", subscription.toString()));
+  /** Passes the error to the error consumer, logging anything it throws. */
+  void onError(Throwable throwable) {
+    try {
+      errConsumer.accept(throwable);
+    } catch (Throwable t) {
+      log.log(SEVERE, t, () -> format("Error consumer failed while handling %s", throwable));
+    }
   }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+/**
+ * Determines what happens when a subscriber's buffer is full, i.e., when a prop is updated faster
+ * than the subscriber can process its updates.
+ *
+ * @see Prop#onUpdate(java.util.function.Consumer, java.util.function.Consumer, OverflowPolicy,
+ *     int)
+ */
+public enum OverflowPolicy {
+  /**
+   * Publishing blocks until the subscriber makes room in its buffer; updates published by other
+   * subscribers (i.e., on a delivery thread) never block, and are buffered instead.
+   */
+  BLOCK,
+
+  /** The oldest undelivered update is dropped, making room for the new one. */
+  DROP_OLDEST,
+
+  /** The new update is dropped. */
+  DROP_NEWEST,
+
+  /**
+   * Only the most recent update is kept, replacing any undelivered ones (the buffer size is
+   * ignored); equivalent to {@link DeliveryMode#LATEST_VALUE}.
+   */
+  CONFLATE,
+}
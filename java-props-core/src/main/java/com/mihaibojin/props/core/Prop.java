@@ -43,9 +43,54 @@ public interface Prop<T> extends Converter<T> {
   @Nullable
   T value();
 
+  /**
+   * Returns a number which is incremented every time the property's value is updated.
+   *
+   * <p>This allows callers which derive state from the property's value (e.g., a compiled pattern)
+   * to cheaply determine if it should be rebuilt, by comparing the version with the one observed
+   * when the state was derived. Implementations which do not track updates always return 0.
+   */
+  default long version() {
+    return 0;
+  }
+
   /** Allows the caller to subscribe to value updates (and any observed errors). */
   void onUpdate(Consumer<T> consumer, Consumer<Throwable> errConsumer);
 
+  /**
+   * Allows the caller to subscribe to value updates (and any observed errors), specifying which
+   * updates should be delivered.
+   *
+   * <p>Implementations which do not support the specified {@link DeliveryMode} deliver every
+   * update.
+   */
+  default void onUpdate(
+      Consumer<T> consumer, Consumer<Throwable> errConsumer, DeliveryMode deliveryMode) {
+    onUpdate(consumer, errConsumer);
+  }
+
+  /**
+   * Allows the caller to subscribe to value updates (and any observed errors), buffering up to
+   * <code>bufferSize</code> undelivered updates and applying the specified {@link OverflowPolicy}
+   * once the buffer is full.
+   *
+   * <p>Implementations which do not support overflow policies deliver every update; their metrics
+   * only record deliveries and callback latency, since queued updates and lag cannot be observed.
+   *
+   * @return the subscription's metrics, which can be used to identify slow subscribers
+   */
+  default SubscriptionMetrics onUpdate(
+      Consumer<T> consumer,
+      Consumer<Throwable> errConsumer,
+      OverflowPolicy overflowPolicy,
+      int bufferSize) {
+    OnUpdateSubscriber<T> subscriber = new OnUpdateSubscriber<>(key(), consumer, errConsumer);
+    onUpdate(
+        value -> subscriber.deliver(value, null, System.nanoTime()),
+        error -> subscriber.deliver(null, error, System.nanoTime()));
+    return subscriber.metrics();
+  }
+
   /**
    * Returns a short description explaining what this prop is used for.
    *
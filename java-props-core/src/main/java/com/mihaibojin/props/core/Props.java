@@ -22,69 +22,156 @@ import static java.util.Objects.nonNull;
 import static java.util.logging.Level.FINER;
 import static java.util.logging.Level.SEVERE;
 
+import com.mihaibojin.props.core.ChangeBatch.Change;
+import com.mihaibojin.props.core.ResolutionTable.ResolvedValue;
 import com.mihaibojin.props.core.annotations.Nullable;
 import com.mihaibojin.props.core.converters.Cast;
 import com.mihaibojin.props.core.converters.Converter;
 import com.mihaibojin.props.core.internal.TemplateStringUtils;
 import com.mihaibojin.props.core.resolvers.PropertyFileResolver;
 import com.mihaibojin.props.core.resolvers.Resolver;
+import com.mihaibojin.props.core.types.BooleanProp;
+import com.mihaibojin.props.core.types.DoubleProp;
+import com.mihaibojin.props.core.types.IntProp;
+import com.mihaibojin.props.core.types.LongProp;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class Props {
 
   private static final Logger log = Logger.getLogger(PropertyFileResolver.class.getName());
-  private final ScheduledExecutorService executor;
+  private static final int DEFAULT_DISPATCHER_BUFFER_SIZE = 1024;
+  private static final int VIRTUAL_DISPATCHER_THREADS = 32;
+  private static final int VIRTUAL_DISPATCHER_BUFFER_SIZE = 256;
+  private static final long COALESCE_WINDOW_MILLIS = 10;
+  private static final int MAX_MEMOIZED_MISSES = 10_000;
+  private final ScheduledThreadPoolExecutor executor;
   private final Map<String, Prop<?>> boundProps = new ConcurrentHashMap<>();
   private final Map<String, String> propIdToResolver = new ConcurrentHashMap<>();
-  private final CountDownLatch latch = new CountDownLatch(1);
-
-  private final List<String> prioritizedResolvers;
+  private final List<Consumer<ChangeBatch>> batchConsumers = new CopyOnWriteArrayList<>();
+  // changed keys which have not yet been applied; only accessed by the refresh thread
+  private final Set<String> pendingChanges = new HashSet<>();
+  private boolean isFlushScheduled;
+  private final CompletableFuture<Props> initialLoad = new CompletableFuture<>();
+  private final AtomicLong generation = new AtomicLong();
+  //  deepcode ignore AvoidUsingVolatile: lock-free fast path, once the initial load completed
+  private volatile boolean isReady;
+  // the raw value which each bound prop was last decoded from, used to skip unchanged values
+  private final Map<String, String> boundRawValues = new ConcurrentHashMap<>();
+  // keys of the bound props which were updated at least once; readers never update these again,
+  // leaving any further changes to the refresh thread (which reports them to batch consumers)
+  private final Set<String> initializedKeys = ConcurrentHashMap.newKeySet();
+
+  private final ResolutionTable resolutionTable;
   private final Map<String, Resolver> resolvers;
   private final Duration shutdownGracePeriod;
-  private final Duration refreshInterval;
-
-  private Props(
-      LinkedHashMap<String, Resolver> resolvers,
-      Duration refreshInterval,
-      Duration shutdownGracePeriod) {
-    this.resolvers = Collections.unmodifiableMap(resolvers);
-
-    // generate a list of resolver IDs, ordered by priority (highest first)
+  private final ReadinessPolicy readinessPolicy;
+  private final Duration initialLoadTimeout;
+  private final DecodedValueCache decodedValueCache;
+  @Nullable private final FileWatcher fileWatcher;
+  private final UpdateDispatcher updateDispatcher;
+  private final boolean ownsUpdateDispatcher;
+  private final Map<String, ResolverReloader> reloaders;
+  private final Map<String, ReloadHistogram> reloadTimings;
+
+  private Props(Factory factory) {
+    this.resolvers = Collections.unmodifiableMap(new LinkedHashMap<>(factory.resolvers));
+
+    // order the resolvers by priority (highest first)
     ArrayList<String> ids = new ArrayList<>(resolvers.keySet());
     Collections.reverse(ids);
-    prioritizedResolvers = Collections.unmodifiableList(ids);
+    Map<String, Resolver> prioritized = new LinkedHashMap<>();
+    ids.forEach(id -> prioritized.put(id, resolvers.get(id)));
+    resolutionTable = new ResolutionTable(prioritized, MAX_MEMOIZED_MISSES);
+
+    Duration refreshInterval = factory.refreshInterval;
+    shutdownGracePeriod = factory.shutdownGracePeriod;
+    readinessPolicy = factory.readinessPolicy;
+    initialLoadTimeout =
+        factory.initialLoadTimeout != null ? factory.initialLoadTimeout : refreshInterval;
+    decodedValueCache = new DecodedValueCache(factory.decodedValueCacheSize);
+
+    boolean useVirtualThreads = factory.virtualThreads && VirtualThreads.isAvailable();
+    if (factory.virtualThreads && !useVirtualThreads) {
+      log.warning(
+          () -> "Virtual threads are not supported by the current JVM; using platform threads");
+    }
 
-    this.refreshInterval = refreshInterval;
-    this.shutdownGracePeriod = shutdownGracePeriod;
+    // reload each resolver in isolation, on its own virtual threads or on a dedicated thread
+    Executor reloadExecutor = useVirtualThreads ? VirtualThreads.perTaskExecutor() : null;
+    Map<String, ResolverReloader> reloaders = new LinkedHashMap<>();
+    Map<String, ReloadHistogram> reloadTimings = new LinkedHashMap<>();
+    resolvers.forEach(
+        (id, resolver) -> {
+          Duration timeout = factory.reloadTimeouts.getOrDefault(id, factory.reloadTimeout);
+          Duration interval = resolver.refreshInterval();
+          Duration jitter = resolver.refreshJitter();
+          ResolverReloader reloader =
+              new ResolverReloader(
+                  id,
+                  resolver,
+                  timeout,
+                  interval != null ? interval : refreshInterval,
+                  jitter != null ? jitter : factory.refreshJitter,
+                  reloadExecutor);
+          reloaders.put(id, reloader);
+          reloadTimings.put(id, reloader.histogram());
+        });
+    this.reloaders = Collections.unmodifiableMap(reloaders);
+    this.reloadTimings = Collections.unmodifiableMap(reloadTimings);
+
+    // deliver updates on a dedicated dispatcher, unless one was provided
+    ownsUpdateDispatcher = factory.updateDispatcher == null;
+    if (factory.updateDispatcher != null) {
+      updateDispatcher = factory.updateDispatcher;
+    } else if (useVirtualThreads) {
+      // since virtual threads are cheap, more of them can be used, limiting the number of props
+      // whose updates are delayed by a blocking subscriber
+      updateDispatcher =
+          new UpdateDispatcher(
+              VIRTUAL_DISPATCHER_THREADS, VIRTUAL_DISPATCHER_BUFFER_SIZE, VirtualThreads.factory());
+    } else {
+      updateDispatcher = new UpdateDispatcher(1, DEFAULT_DISPATCHER_BUFFER_SIZE);
+    }
 
     // create an executor with Daemon threads, allowing the executor to shutdown when all
     // non-daemon threads exit
     // this executor will only be used for refreshing resolvers, and as such a single
     // thread should ever be run at the same time
     executor =
-        Executors.newScheduledThreadPool(
+        new ScheduledThreadPoolExecutor(
             1,
             runnable -> {
               Thread thread = Executors.defaultThreadFactory().newThread(runnable);
               thread.setDaemon(true);
               return thread;
             });
+    // pending refreshes are rescheduled after each run, and should not delay shutting down
+    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
     // register a shutdown hook, allowing the executor to gracefully shutdown
     Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
@@ -92,28 +179,111 @@ public class Props {
     // perform an initial load, ensuring that all resolvers have values
     executor.submit(
         () -> {
-          this.resolvers.entrySet().parallelStream().forEach(Props::safeReload);
-          latch.countDown();
+          try {
+            // discard any routes memoized by reads which did not wait for the initial load,
+            // instead of iterating over all the loaded keys (which some resolvers load lazily)
+            reloadAll(this.reloaders.values(), keys -> {});
+            resolutionTable.invalidateAll();
+            isReady = true;
+
+            // update any props which were bound before the registry was ready
+            boundProps.values().forEach(this::update);
+          } finally {
+            // never leave readers waiting, even if the initial load failed
+            isReady = true;
+            initialLoad.complete(this);
+          }
         });
 
-    // and schedule a period refresh operation
-    executor.scheduleAtFixedRate(
-        () -> refreshResolvers(this.resolvers),
-        refreshInterval.toMillis(),
-        refreshInterval.toMillis(),
-        TimeUnit.MILLISECONDS);
+    // and refresh each reloadable resolver periodically, on its own schedule
+    this.reloaders.values().stream()
+        .filter(r -> r.resolver().isReloadable())
+        .forEach(this::schedulePeriodicRefresh);
+
+    // optionally, refresh resolvers as soon as their files change
+    fileWatcher = factory.watchFiles ? startFileWatcher() : null;
   }
 
   /**
-   * Safely reload all the values managed by the specified {@link Resolver} and logs any exceptions.
+   * Starts watching the resolvers' files and schedules a refresh of the signalled resolvers on the
+   * refresh thread, as soon as any of them change.
    */
-  private static Set<String> safeReload(Entry<String, Resolver> res) {
+  @Nullable
+  private FileWatcher startFileWatcher() {
     try {
-      return res.getValue().reload();
-    } catch (Throwable t) {
-      log.log(SEVERE, t, () -> format("Unexpected error reloading props from %s", res.getKey()));
+      return new FileWatcher(resolvers, this::scheduleRefresh);
+    } catch (IOException e) {
+      log.log(SEVERE, e, () -> "Could not watch files for changes; relying on polling");
+      return null;
+    }
+  }
+
+  /** Schedules a refresh of the specified resolvers, in priority order. */
+  private void scheduleRefresh(Set<String> resolverIds) {
+    if (executor.isShutdown()) {
+      return;
+    }
+
+    List<ResolverReloader> signalled =
+        reloaders.values().stream()
+            .filter(r -> resolverIds.contains(r.id()))
+            .collect(Collectors.toList());
+    executor.execute(() -> refreshResolvers(signalled));
+  }
+
+  /**
+   * Schedules the next periodic refresh of the specified resolver, after its refresh interval
+   * (plus jitter) elapses.
+   */
+  private void schedulePeriodicRefresh(ResolverReloader reloader) {
+    if (executor.isShutdown()) {
+      return;
     }
-    return Set.of();
+
+    executor.schedule(
+        () -> {
+          try {
+            refreshResolvers(List.of(reloader));
+          } finally {
+            schedulePeriodicRefresh(reloader);
+          }
+        },
+        reloader.nextRefreshDelayMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Schedules the changes reported by a reload which missed its deadline, to be applied on the
+   * refresh thread.
+   */
+  private void scheduleLateChanges(Set<String> keys) {
+    if (keys.isEmpty() || executor.isShutdown()) {
+      return;
+    }
+
+    executor.execute(() -> enqueueChanges(keys));
+  }
+
+  /**
+   * Queues the changed keys and schedules them to be applied shortly, which coalesces the changes
+   * of resolvers whose reloads complete close together into a single update.
+   */
+  private void enqueueChanges(Set<String> keys) {
+    pendingChanges.addAll(keys);
+    if (isFlushScheduled || pendingChanges.isEmpty() || executor.isShutdown()) {
+      return;
+    }
+
+    isFlushScheduled = true;
+    executor.schedule(this::flushChanges, COALESCE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /** Applies all the queued changes. */
+  private void flushChanges() {
+    Set<String> keys = new HashSet<>(pendingChanges);
+    pendingChanges.clear();
+    isFlushScheduled = false;
+    applyChanges(keys);
   }
 
   /** Convenience method for configuring {@link Props} registry objects. */
@@ -134,19 +304,37 @@ public class Props {
    *     registry.
    */
   public <T, R extends Prop<T>> void bind(R prop, @Nullable String resolverId) {
+    // NullAway does not recognize Objects.nonNull (https://github.com/uber/NullAway/issues/393)
+    if (!Objects.isNull(resolverId)) {
+      // validate the resolver before binding, so that an invalid id does not leave the prop bound
+      validateResolver(resolverId);
+    }
+
     Prop<?> oldProp = boundProps.putIfAbsent(prop.key(), prop);
     if (nonNull(oldProp) && oldProp != prop) {
       throw new BindException(prop.key(), oldProp);
     }
 
-    // NullAway does not recognize Objects.nonNull (https://github.com/uber/NullAway/issues/393)
+    // deliver the prop's updates via this registry's dispatcher
+    if (prop instanceof AbstractProp) {
+      ((AbstractProp<T>) prop).dispatcher(updateDispatcher);
+    }
+
     if (!Objects.isNull(resolverId)) {
       // only register the prop with a resolver, if the id is non-null and valid
-      validateResolver(resolverId);
       propIdToResolver.put(prop.key(), resolverId);
     }
   }
 
+  /** Removes a prop which was bound by a failed {@link #bindAndUpdate(Prop, String)} call. */
+  private void unbind(Prop<?> prop) {
+    if (boundProps.remove(prop.key(), prop)) {
+      propIdToResolver.remove(prop.key());
+      boundRawValues.remove(prop.key());
+      initializedKeys.remove(prop.key());
+    }
+  }
+
   /**
    * Convenience method for users who need to bind {@link Prop}s manually.
    *
@@ -162,8 +350,9 @@ public class Props {
    */
   @Nullable
   public Prop<?> retrieveProp(String key) {
-    update(boundProps.get(key));
-    return boundProps.get(key);
+    Prop<?> prop = boundProps.get(key);
+    initialize(prop);
+    return prop;
   }
 
   /**
@@ -175,8 +364,21 @@ public class Props {
   @Nullable
   @SuppressWarnings("unchecked")
   public <T, R extends Prop<T>> R retrieve(String key) {
-    update(boundProps.get(key));
-    return (R) boundProps.get(key);
+    Prop<?> prop = boundProps.get(key);
+    initialize(prop);
+    return (R) prop;
+  }
+
+  /**
+   * Updates the {@link Prop}'s value, unless it was already updated by this registry.
+   *
+   * <p>Readers must not apply changes which the refresh thread has not yet processed, since that
+   * would prevent them from being reported to batch consumers.
+   */
+  private <T> void initialize(@Nullable Prop<T> prop) {
+    if (prop != null && !initializedKeys.contains(prop.key())) {
+      update(prop);
+    }
   }
 
   /** Updates the {@link Prop}'s current value. */
@@ -184,11 +386,24 @@ public class Props {
     if (prop == null) {
       return;
     }
-    // retrieve the Prop's current value
-    T currentValue = ((AbstractProp<T>) prop).getValueInternal();
+    update(prop, null);
+  }
 
+  /**
+   * Updates the {@link Prop}'s current value and, if a <code>changes</code> list is specified,
+   * records any change.
+   */
+  private <T> void update(Prop<T> prop, @Nullable List<Change<?>> changes) {
     // determine if the prop is linked to a specific resolver
     String resolverId = propIdToResolver.get(prop.key());
+    if (isNull(resolverId)) {
+      update(prop, resolve(prop.key()), changes);
+      return;
+    }
+
+    // retrieve the Prop's current value
+    T currentValue = ((AbstractProp<T>) prop).getValueInternal();
+
     // resolve the Props' updated value
     T updatedValue = resolveProp(prop, resolverId);
 
@@ -196,7 +411,53 @@ public class Props {
     if (!Objects.equals(currentValue, updatedValue)) {
       // update the current value
       ((AbstractProp<T>) prop).setValue(updatedValue);
+      generation.incrementAndGet();
+
+      if (changes != null) {
+        changes.add(
+            new Change<>(
+                prop, currentValue, updatedValue, winningResolver(prop.key(), resolverId)));
+      }
     }
+    initializedKeys.add(prop.key());
+  }
+
+  /**
+   * Updates the {@link Prop}'s current value from an already resolved (raw) value and, if a <code>
+   * changes</code> list is specified, records any change.
+   *
+   * <p>The raw value is only recorded once it was successfully decoded and set, ensuring that
+   * values which fail to decode (or validate) are retried when their key changes again.
+   */
+  private <T> void update(Prop<T> prop, ResolvedValue resolved, @Nullable List<Change<?>> changes) {
+    T currentValue = ((AbstractProp<T>) prop).getValueInternal();
+    T updatedValue = isNull(resolved.value) ? null : prop.decode(resolved.value);
+
+    if (!Objects.equals(currentValue, updatedValue)) {
+      ((AbstractProp<T>) prop).setValue(updatedValue);
+      generation.incrementAndGet();
+
+      if (changes != null) {
+        changes.add(new Change<>(prop, currentValue, updatedValue, resolved.resolverId));
+      }
+    }
+
+    if (isNull(resolved.value)) {
+      boundRawValues.remove(prop.key());
+    } else {
+      boundRawValues.put(prop.key(), resolved.value);
+    }
+    initializedKeys.add(prop.key());
+  }
+
+  /** Returns the id of the resolver which currently defines the specified key, if any. */
+  @Nullable
+  private String winningResolver(String key, @Nullable String resolverId) {
+    if (resolverId != null) {
+      Resolver resolver = resolvers.get(resolverId);
+      return nonNull(resolver) && nonNull(resolver.get(key)) ? resolverId : null;
+    }
+    return resolutionTable.get(key).resolverId;
   }
 
   /** Search all resolvers for a value. */
@@ -212,6 +473,35 @@ public class Props {
    */
   @Nullable
   <T> T resolveByKey(String key, Converter<T> converter, @Nullable String resolverId) {
+    String value = resolveRawValue(key, resolverId);
+    if (isNull(value)) {
+      return null;
+    }
+
+    return converter.decode(value);
+  }
+
+  /**
+   * Similar to {@link #resolveByKey(String, Converter, String)}, but serves decoded values from a
+   * bounded cache, avoiding repeated decoding of the same values in ad hoc reads.
+   */
+  @Nullable
+  <T> T resolveByKeyCached(String key, Converter<T> converter, @Nullable String resolverId) {
+    String value = resolveRawValue(key, resolverId);
+    if (isNull(value)) {
+      return null;
+    }
+
+    return decodedValueCache.decode(key, converter, resolverId, value);
+  }
+
+  /**
+   * Searches all resolvers for the specified key and returns its raw (not decoded) value.
+   *
+   * <p>If a <code>resolverId</code> is specified, only search the matching resolver.
+   */
+  @Nullable
+  private String resolveRawValue(String key, @Nullable String resolverId) {
     if (!waitForInitialLoad()) {
       return null;
     }
@@ -223,42 +513,30 @@ public class Props {
         return null;
       }
 
-      String val = resolver.get(key);
-      if (isNull(val)) {
-        return null;
-      }
-
-      //  deepcode ignore AvoidBranchingStatementAsLastInLoop: improved logic readability
-      return converter.decode(val);
+      return resolver.get(key);
     }
 
-    for (String id : prioritizedResolvers) {
-      // search each resolver, in priority order
-      Resolver resolver = resolvers.get(id);
-      if (isNull(resolver)) {
-        continue;
-      }
+    // the winning resolver is memoized by the resolution table
+    ResolvedValue resolved = resolutionTable.get(key);
 
-      // find the appropriate value, if it exists
-      String value = resolver.get(key);
-      if (isNull(value)) {
-        continue;
-      }
+    // the current method is hot (can be called many times) and the following optimization
+    // avoids unnecessary object allocations due to calling String.format(...)
+    if (nonNull(resolved.value) && log.isLoggable(FINER)) {
+      log.log(FINER, () -> format("%s resolved by %s", key, resolved.resolverId));
+    }
 
-      // the current method is hot (can be called many times) and the following optimization
-      // avoids unnecessary object allocations due to calling String.format(...)
-      if (log.isLoggable(FINER)) {
-        log.log(FINER, () -> format("%s resolved by %s", key, id));
-      }
+    return resolved.value;
+  }
 
-      // return an optional which decodes the value on get
-      // the reason for lazy decoding is to reduce confusion in a potential stacktrace
-      // since the problem would be related to decoding the retrieved string and not with
-      // resolving the value
-      return converter.decode(value);
+  /**
+   * Returns the winning value for the specified key, or {@link ResolutionTable#MISSING} if the
+   * registry is not ready and reads should not wait for it.
+   */
+  private ResolvedValue resolve(String key) {
+    if (!waitForInitialLoad()) {
+      return ResolutionTable.MISSING;
     }
-
-    return null;
+    return resolutionTable.get(key);
   }
 
   /**
@@ -299,39 +577,184 @@ public class Props {
   }
 
   /**
-   * Waits for the initial operation to load all resolvers to complete.
+   * Returns a number which is incremented every time the value of any bound {@link Prop} is
+   * updated, allowing callers to determine if anything changed with a single read.
    *
-   * @return true if the wait completed successfully
+   * @see Prop#version()
    */
-  private <T> boolean waitForInitialLoad() {
-    try {
-      latch.await(refreshInterval.toSeconds(), TimeUnit.SECONDS);
+  public long generation() {
+    return generation.get();
+  }
+
+  /** Returns <code>true</code> once the initial load of all resolvers has completed. */
+  public boolean isReady() {
+    return isReady;
+  }
+
+  /**
+   * Determines if values can be resolved, applying the configured {@link ReadinessPolicy} if the
+   * initial load of all resolvers has not yet completed.
+   *
+   * @return true if values should be resolved, or false if the caller should fall back to defaults
+   * @throws IllegalStateException if the registry is not ready and {@link
+   *     ReadinessPolicy#FAIL_FAST} is configured
+   */
+  private boolean waitForInitialLoad() {
+    // fast path, once the initial load completed
+    if (isReady) {
       return true;
+    }
 
+    if (readinessPolicy == ReadinessPolicy.SERVE_DEFAULTS) {
+      return false;
+    } else if (readinessPolicy == ReadinessPolicy.FAIL_FAST) {
+      throw new IllegalStateException("Props has not finished loading its resolvers");
+    }
+
+    try {
+      initialLoad.get(initialLoadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.warning(
+          () ->
+              format(
+                  "Initial load did not complete within %s, resolving anyway", initialLoadTimeout));
+    } catch (ExecutionException e) {
+      log.log(SEVERE, e, () -> "Initial load failed");
     } catch (InterruptedException e) {
       log.log(SEVERE, e, () -> "Could not resolve in time");
       Thread.currentThread().interrupt();
       return false;
     }
+    return true;
+  }
+
+  /** Refreshes values from the specified {@link Resolver}s. */
+  private void refreshResolvers(Collection<ResolverReloader> reloaders) {
+    // we need to collect since we need all layers to have finished their update cycle
+    // before reading them
+    reloadAll(
+        reloaders.stream().filter(r -> r.resolver().isReloadable()).collect(Collectors.toList()),
+        this::enqueueChanges);
   }
 
-  /** Refreshes values from all the registered {@link Resolver}s. */
-  private void refreshResolvers(Map<String, Resolver> resolvers) {
-    Set<? extends Prop<?>> toUpdate =
-        resolvers.entrySet().parallelStream()
-            .filter(r -> r.getValue().isReloadable())
-            .map(Props::safeReload)
-            .flatMap(keys -> keys.stream().map(boundProps::get).filter(Objects::nonNull))
-            // we need to collect since we need all layers to have finished their update cycle
-            // before reading them
-            .collect(Collectors.toSet());
+  /**
+   * Updates the resolution table, the decoded value cache, and all props for the changed keys.
+   *
+   * <p>The routes of all changed keys are discarded before any props are updated, and props are
+   * only decoded if their winning raw value has changed; props linked to a specific resolver are
+   * always re-resolved from it. Props which cannot be updated (e.g., because their value fails to
+   * decode) are logged and skipped, without affecting the others.
+   */
+  private void applyChanges(Set<String> keys) {
+    resolutionTable.invalidate(keys);
+    decodedValueCache.invalidate(keys);
+
+    // record all changes only if batch consumers need to be notified
+    List<Change<?>> changes = batchConsumers.isEmpty() ? null : new ArrayList<>();
+    for (String key : keys) {
+      Prop<?> prop = boundProps.get(key);
+      if (isNull(prop)) {
+        continue;
+      }
+
+      try {
+        if (propIdToResolver.containsKey(key)) {
+          update(prop, changes);
+        } else {
+          ResolvedValue resolved = resolutionTable.get(key);
+          String previous = boundRawValues.get(key);
+          if (isNull(previous) || !previous.equals(resolved.value)) {
+            update(prop, resolved, changes);
+          }
+        }
+      } catch (RuntimeException e) {
+        log.log(SEVERE, e, () -> format("Could not update %s", key));
+      }
+    }
+
+    // notify batch consumers once per refresh
+    if (changes != null && !changes.isEmpty()) {
+      ChangeBatch batch = new ChangeBatch(changes);
+      Runnable notify = () -> batchConsumers.forEach(c -> notifyBatch(c, batch));
+      if (!updateDispatcher.offer("", notify)) {
+        log.warning(
+            () -> format("Dropped %d changes, since batch consumers are too slow", batch.size()));
+      }
+    }
+  }
+
+  /** Passes the batch to the specified consumer, logging anything it throws. */
+  private static void notifyBatch(Consumer<ChangeBatch> consumer, ChangeBatch batch) {
+    try {
+      consumer.accept(batch);
+    } catch (Throwable t) {
+      log.log(SEVERE, t, () -> format("Could not process %d changes", batch.size()));
+    }
+  }
+
+  /**
+   * Registers a consumer which is called once per refresh, with all the bound {@link Prop}s whose
+   * values changed; refreshes which do not change any values are not signalled.
+   *
+   * <p>Unlike {@link Prop#onUpdate(Consumer, Consumer)}, this allows components which depend on
+   * multiple related props to reconfigure once, after all of them were updated.
+   */
+  public void onChanges(Consumer<ChangeBatch> consumer) {
+    batchConsumers.add(consumer);
+  }
+
+  /**
+   * Reloads the specified resolvers, in parallel, and passes the keys which have changed in each of
+   * them to <code>onChanges</code>.
+   *
+   * <p>Each resolver is waited on for at most its reload timeout (measured from when all reloads
+   * were started). The changes of any resolvers which miss their deadline are applied separately,
+   * once they eventually complete. Resolvers which are still reloading from a previous refresh
+   * are skipped, and reloaded again as soon as their in-flight reload completes, which ensures
+   * that changes made while it was running (e.g., signalled by the file watcher) are not missed.
+   */
+  private void reloadAll(Collection<ResolverReloader> reloaders, Consumer<Set<String>> onChanges) {
+    Map<ResolverReloader, CompletableFuture<Set<String>>> reloads = new LinkedHashMap<>();
+    for (ResolverReloader reloader : reloaders) {
+      if (reloader.isReloading()) {
+        log.fine(() -> format("Deferring %s, since it is still reloading", reloader.id()));
+        reloader.reloadWhenDone(() -> scheduleRefresh(Set.of(reloader.id())));
+        continue;
+      }
+      reloads.put(reloader, reloader.reload());
+    }
 
-    toUpdate.forEach(this::update);
+    long start = System.nanoTime();
+    for (Entry<ResolverReloader, CompletableFuture<Set<String>>> entry : reloads.entrySet()) {
+      ResolverReloader reloader = entry.getKey();
+      CompletableFuture<Set<String>> reload = entry.getValue();
+      long remaining = reloader.timeout().toNanos() - (System.nanoTime() - start);
+      try {
+        onChanges.accept(reload.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+      } catch (TimeoutException e) {
+        reloader.histogram().recordTimeout();
+        log.warning(
+            () ->
+                format(
+                    "%s did not reload within %s; applying its changes when done",
+                    reloader.id(), reloader.timeout()));
+        reload.thenAccept(this::scheduleLateChanges);
+      } catch (ExecutionException e) {
+        log.log(SEVERE, e, () -> format("Could not reload %s", reloader.id()));
+      } catch (InterruptedException e) {
+        log.warning(() -> "Interrupted while reloading resolvers");
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
   }
 
-  /** Gracefully terminate this class's {@link ScheduledExecutorService}. */
+  /** Gracefully terminate this class's {@link ScheduledThreadPoolExecutor}. */
   private void shutdown() {
     log.info(() -> "Shutting down the Props executor...");
+    if (fileWatcher != null) {
+      fileWatcher.close();
+    }
     executor.shutdown();
     try {
       executor.awaitTermination(shutdownGracePeriod.toSeconds(), TimeUnit.SECONDS);
@@ -340,6 +763,24 @@ public class Props {
       executor.shutdownNow();
       Thread.currentThread().interrupt();
     }
+
+    reloaders.values().forEach(ResolverReloader::shutdown);
+    if (ownsUpdateDispatcher) {
+      updateDispatcher.close();
+    }
+  }
+
+  /**
+   * Returns a histogram of how long each resolver's reloads take (and how many of them timed out),
+   * keyed by resolver id.
+   */
+  public Map<String, ReloadHistogram> reloadTimings() {
+    return reloadTimings;
+  }
+
+  /** Returns statistics about the cache which holds values decoded by ad hoc reads. */
+  public CacheStats decodedValueCacheStats() {
+    return decodedValueCache.stats();
   }
 
   /** Convenience method for building string {@link Prop}s. */
@@ -352,12 +793,123 @@ public class Props {
     return new Builder<>(key, converter);
   }
 
+  /**
+   * Convenience method for building an {@link IntProp}, which can be read without unboxing.
+   *
+   * @see #bind(Prop, String)
+   */
+  public IntProp intProp(String key, int defaultValue) {
+    return intPropBuilder(key, defaultValue).build();
+  }
+
+  /**
+   * Convenience method for building an {@link IntProp}, which can be read without unboxing, with
+   * additional metadata or from a specific resolver.
+   */
+  public PrimitiveBuilder<Integer, IntProp> intPropBuilder(String key, int defaultValue) {
+    return new PrimitiveBuilder<>(
+        key,
+        (description, isRequired, isSecret) ->
+            new IntProp(key, defaultValue, description, isRequired, isSecret));
+  }
+
+  /**
+   * Convenience method for building a {@link LongProp}, which can be read without unboxing.
+   *
+   * @see #bind(Prop, String)
+   */
+  public LongProp longProp(String key, long defaultValue) {
+    return longPropBuilder(key, defaultValue).build();
+  }
+
+  /**
+   * Convenience method for building a {@link LongProp}, which can be read without unboxing, with
+   * additional metadata or from a specific resolver.
+   */
+  public PrimitiveBuilder<Long, LongProp> longPropBuilder(String key, long defaultValue) {
+    return new PrimitiveBuilder<>(
+        key,
+        (description, isRequired, isSecret) ->
+            new LongProp(key, defaultValue, description, isRequired, isSecret));
+  }
+
+  /**
+   * Convenience method for building a {@link DoubleProp}, which can be read without unboxing.
+   *
+   * @see #bind(Prop, String)
+   */
+  public DoubleProp doubleProp(String key, double defaultValue) {
+    return doublePropBuilder(key, defaultValue).build();
+  }
+
+  /**
+   * Convenience method for building a {@link DoubleProp}, which can be read without unboxing, with
+   * additional metadata or from a specific resolver.
+   */
+  public PrimitiveBuilder<Double, DoubleProp> doublePropBuilder(String key, double defaultValue) {
+    return new PrimitiveBuilder<>(
+        key,
+        (description, isRequired, isSecret) ->
+            new DoubleProp(key, defaultValue, description, isRequired, isSecret));
+  }
+
+  /**
+   * Convenience method for building a {@link BooleanProp}, which can be read without unboxing.
+   *
+   * @see #bind(Prop, String)
+   */
+  public BooleanProp booleanProp(String key, boolean defaultValue) {
+    return booleanPropBuilder(key, defaultValue).build();
+  }
+
+  /**
+   * Convenience method for building a {@link BooleanProp}, which can be read without unboxing, with
+   * additional metadata or from a specific resolver.
+   */
+  public PrimitiveBuilder<Boolean, BooleanProp> booleanPropBuilder(
+      String key, boolean defaultValue) {
+    return new PrimitiveBuilder<>(
+        key,
+        (description, isRequired, isSecret) ->
+            new BooleanProp(key, defaultValue, description, isRequired, isSecret));
+  }
+
+  /**
+   * Binds the specified prop and loads its current value.
+   *
+   * <p>If the value cannot be loaded (e.g., the registry is not yet ready and {@link
+   * ReadinessPolicy#FAIL_FAST} is configured, or the value fails validation), a prop which was not
+   * previously bound is unbound, allowing the caller to retry.
+   */
+  private <T, R extends Prop<T>> R bindAndUpdate(R prop, @Nullable String resolverId) {
+    boolean wasBound = boundProps.get(prop.key()) == prop;
+    bind(prop, resolverId);
+    try {
+      update(prop);
+    } catch (RuntimeException e) {
+      if (!wasBound) {
+        unbind(prop);
+      }
+      throw e;
+    }
+    return prop;
+  }
+
   /** Factory class for building {@link Props} registry classes. */
   public static class Factory {
 
     private final LinkedHashMap<String, Resolver> resolvers = new LinkedHashMap<>();
     private Duration refreshInterval = Duration.ofSeconds(30);
+    private Duration refreshJitter = Duration.ZERO;
     private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+    private int decodedValueCacheSize = 10_000;
+    private ReadinessPolicy readinessPolicy = ReadinessPolicy.BLOCK;
+    @Nullable private Duration initialLoadTimeout;
+    private boolean watchFiles;
+    private boolean virtualThreads;
+    @Nullable private UpdateDispatcher updateDispatcher;
+    private Duration reloadTimeout = Duration.ofSeconds(10);
+    private final Map<String, Duration> reloadTimeouts = new HashMap<>();
 
     private Factory() {}
 
@@ -375,13 +927,24 @@ public class Props {
 
     /**
      * Allows customizing the refresh interval at which auto-update-able {@link
-     * com.mihaibojin.props.core.resolvers.Resolver}s are refreshed.
+     * com.mihaibojin.props.core.resolvers.Resolver}s are refreshed, unless they specify their own
+     * {@link Resolver#refreshInterval()}.
      */
     public Factory refreshInterval(Duration interval) {
       refreshInterval = interval;
       return this;
     }
 
+    /**
+     * Allows adding a random delay, of up to the specified duration, to each periodic refresh of
+     * resolvers which do not specify their own {@link Resolver#refreshJitter()}; defaults to no
+     * jitter.
+     */
+    public Factory refreshJitter(Duration jitter) {
+      refreshJitter = jitter;
+      return this;
+    }
+
     /**
      * Allows customizing the shutdown grace period, before the executor is forcefully shut down.
      */
@@ -390,6 +953,99 @@ public class Props {
       return this;
     }
 
+    /**
+     * Allows customizing the maximum number of decoded values cached for ad hoc reads (via {@link
+     * Builder#value()} and {@link Builder#valueOf(String, Converter)}); set to 0 to disable the
+     * cache.
+     *
+     * @see Props#decodedValueCacheStats()
+     */
+    public Factory decodedValueCacheSize(int maxEntries) {
+      decodedValueCacheSize = maxEntries;
+      return this;
+    }
+
+    /**
+     * Allows customizing how reads made before the initial load of all resolvers has completed are
+     * handled; defaults to {@link ReadinessPolicy#BLOCK}.
+     */
+    public Factory readinessPolicy(ReadinessPolicy policy) {
+      readinessPolicy = policy;
+      return this;
+    }
+
+    /**
+     * Allows customizing how long reads wait for the initial load to complete, when using {@link
+     * ReadinessPolicy#BLOCK}; defaults to the {@link #refreshInterval(Duration)}.
+     */
+    public Factory initialLoadTimeout(Duration timeout) {
+      initialLoadTimeout = timeout;
+      return this;
+    }
+
+    /**
+     * Allows reloading resolvers as soon as any of their {@link Resolver#watchedPaths()} change,
+     * instead of waiting for the next periodic refresh.
+     *
+     * <p>Periodic refreshes still run, catching any changes which were not signalled (e.g., on file
+     * systems which do not support watching, or if events were lost), which means that the {@link
+     * #refreshInterval(Duration)} can be set to a much longer interval.
+     */
+    public Factory watchFiles(boolean watchFiles) {
+      this.watchFiles = watchFiles;
+      return this;
+    }
+
+    /**
+     * Allows running each resolver reload and delivering updates to subscribers on virtual
+     * threads, which means that blocking I/O in resolvers, or blocking work in subscribers, does
+     * not tie up platform threads.
+     *
+     * <p>Virtual threads require Java 21 or later; on older JVMs, this setting is ignored and a
+     * warning is logged. Subscribers are only notified on virtual threads if a custom {@link
+     * #updateDispatcher(UpdateDispatcher)} is not specified.
+     */
+    public Factory virtualThreads(boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    /**
+     * Allows customizing the {@link UpdateDispatcher} which delivers prop updates to subscribers,
+     * e.g., to use more threads or to share it between multiple registries.
+     *
+     * <p>By default, each registry delivers updates on a single thread, which can queue up to 1024
+     * updates. Dispatchers provided via this method are not closed when the registry shuts down.
+     */
+    public Factory updateDispatcher(UpdateDispatcher dispatcher) {
+      updateDispatcher = dispatcher;
+      return this;
+    }
+
+    /**
+     * Allows customizing how long refreshes wait for each resolver to reload; defaults to 10
+     * seconds.
+     *
+     * <p>Each resolver is reloaded in isolation, which means that a slow resolver does not delay
+     * the changes of any others. If a resolver misses its deadline, its changes are applied once
+     * its reload completes and it is skipped by subsequent refreshes, until then.
+     *
+     * @see Props#reloadTimings()
+     */
+    public Factory reloadTimeout(Duration timeout) {
+      reloadTimeout = timeout;
+      return this;
+    }
+
+    /**
+     * Allows customizing how long refreshes wait for the specified resolver to reload, overriding
+     * the {@link #reloadTimeout(Duration)}.
+     */
+    public Factory reloadTimeout(String resolverId, Duration timeout) {
+      reloadTimeouts.put(resolverId, timeout);
+      return this;
+    }
+
     /**
      * Creates the {@link Props} object.
      *
@@ -401,7 +1057,21 @@ public class Props {
         throw new IllegalStateException("Cannot initialize Props without any Resolvers");
       }
 
-      return new Props(resolvers, refreshInterval, shutdownGracePeriod);
+      return new Props(this);
+    }
+
+    /**
+     * Creates the {@link Props} object and returns a future which completes once the initial load
+     * of all resolvers has completed.
+     *
+     * <p>Completing or cancelling the returned future does not affect the registry.
+     *
+     * @throws IllegalStateException if the method is called without registering any {@link
+     *     Resolver}s
+     */
+    public CompletableFuture<Props> buildAsync() {
+      // callers must not be able to complete the future which readers wait on
+      return build().initialLoad.copy();
     }
   }
 
@@ -444,6 +1114,63 @@ public class Props {
     return processed;
   }
 
+  /** Creates a primitive prop, with the specified metadata. */
+  @FunctionalInterface
+  private interface PrimitivePropFactory<T, P extends Prop<T>> {
+    P create(@Nullable String description, boolean isRequired, boolean isSecret);
+  }
+
+  /**
+   * Builder for props which can be read without unboxing (e.g., {@link IntProp}); their default
+   * value is specified when the builder is created, since it cannot be <code>null</code>.
+   */
+  public class PrimitiveBuilder<T, P extends Prop<T>> {
+
+    public final String key;
+    private final PrimitivePropFactory<T, P> factory;
+    @Nullable private String description;
+    private boolean isRequired;
+    private boolean isSecret;
+    @Nullable private String resolverId;
+
+    private PrimitiveBuilder(String key, PrimitivePropFactory<T, P> factory) {
+      if (isNull(key)) {
+        throw new IllegalStateException("The property's key cannot be null");
+      }
+      this.key = key;
+      this.factory = factory;
+    }
+
+    /** Specifies the resolver (by id) to use for retrieving this property. */
+    public PrimitiveBuilder<T, P> resolver(String resolverId) {
+      validateResolver(resolverId);
+      this.resolverId = resolverId;
+      return this;
+    }
+
+    public PrimitiveBuilder<T, P> description(String description) {
+      this.description = description;
+      return this;
+    }
+
+    public PrimitiveBuilder<T, P> isRequired(boolean isRequired) {
+      this.isRequired = isRequired;
+      return this;
+    }
+
+    public PrimitiveBuilder<T, P> isSecret(boolean isSecret) {
+      this.isSecret = isSecret;
+      return this;
+    }
+
+    /**
+     * Constructs the {@link Prop}, binds it to the current {@link Props} instance, and returns it.
+     */
+    public P build() {
+      return bindAndUpdate(factory.create(description, isRequired, isSecret), resolverId);
+    }
+  }
+
   /** Builder class for creating custom {@link Prop}s from the current {@link Props} registry. */
   public class Builder<T> {
 
@@ -512,9 +1239,7 @@ public class Props {
               return converter.encode(value);
             }
           };
-      bind(prop, resolverId);
-      update(prop);
-      return prop;
+      return bindAndUpdate(prop, resolverId);
     }
 
     /**
@@ -526,7 +1251,7 @@ public class Props {
      */
     @Nullable
     public T value() {
-      T result = resolveByKey(key, converter, resolverId);
+      T result = resolveByKeyCached(key, converter, resolverId);
       if (isNull(result)) {
         // if looking for the key did not find the value, choose the default value
         result = defaultValue;
@@ -553,7 +1278,7 @@ public class Props {
      */
     @Nullable
     public T valueOf(String key, Converter<T> converter) {
-      return resolveByKey(key, converter, null);
+      return resolveByKeyCached(key, converter, null);
     }
 
     /**
@@ -567,7 +1292,7 @@ public class Props {
      */
     @Nullable
     public String valueOf(String key) {
-      return resolveByKey(key, Cast.asString(), null);
+      return resolveByKeyCached(key, Cast.asString(), null);
     }
   }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Buffers up to a fixed number of updates for a subscriber, applying its {@link OverflowPolicy}
+ * once the buffer is full.
+ *
+ * <p>Each subscriber has at most one delivery scheduled on the {@link UpdateDispatcher} at any
+ * time, which drains its buffer in order.
+ */
+final class QueuedSubscriber<T> implements BufferedSubscriber<T>, Runnable {
+  private static final Logger log = Logger.getLogger(QueuedSubscriber.class.getName());
+
+  private final String key;
+  private final OnUpdateSubscriber<T> subscriber;
+  private final OverflowPolicy policy;
+  private final int capacity;
+  private final ArrayDeque<Pending<T>> buffer;
+  private final AtomicBoolean isScheduled = new AtomicBoolean();
+
+  /**
+   * Constructs a subscriber which buffers up to the specified number of updates.
+   *
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  QueuedSubscriber(
+      String key, OnUpdateSubscriber<T> subscriber, OverflowPolicy policy, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException(format("Invalid buffer size (%d)", capacity));
+    }
+
+    this.key = key;
+    this.subscriber = subscriber;
+    this.policy = policy;
+    this.capacity = capacity;
+    this.buffer = new ArrayDeque<>(capacity);
+  }
+
+  /** Buffers the update, applying the overflow policy, and schedules a delivery if needed. */
+  @Override
+  public void offer(UpdateDispatcher dispatcher, @Nullable T value, @Nullable Throwable error) {
+    Pending<T> pending = new Pending<>(value, error, System.nanoTime());
+    synchronized (buffer) {
+      if (!makeRoom()) {
+        subscriber.metrics().recordDrop();
+        return;
+      }
+      buffer.addLast(pending);
+      subscriber.metrics().addQueued(1);
+    }
+
+    if (isScheduled.compareAndSet(false, true)) {
+      dispatcher.schedule(key, this);
+    }
+  }
+
+  /**
+   * Ensures the buffer can hold another update, returning false if the new update should be
+   * dropped instead; must be called while holding the buffer's lock.
+   */
+  private boolean makeRoom() {
+    if (buffer.size() < capacity) {
+      return true;
+    }
+
+    switch (policy) {
+      case DROP_NEWEST:
+        return false;
+
+      case BLOCK:
+        if (UpdateDispatcher.isDeliveryThread()) {
+          // the delivery which would make room may be queued behind the current one, so waiting
+          // could deadlock; the buffer temporarily exceeds its capacity instead
+          return true;
+        }
+
+        // a full buffer always has a delivery scheduled, which will eventually make room
+        try {
+          while (buffer.size() >= capacity) {
+            buffer.wait();
+          }
+          return true;
+        } catch (InterruptedException e) {
+          log.warning(() -> format("Interrupted while waiting for a subscriber of %s", key));
+          Thread.currentThread().interrupt();
+          return false;
+        }
+
+      default:
+        // DROP_OLDEST
+        buffer.removeFirst();
+        subscriber.metrics().addQueued(-1);
+        subscriber.metrics().recordDrop();
+        return true;
+    }
+  }
+
+  /** Delivers all buffered updates; called by the {@link UpdateDispatcher}. */
+  @Override
+  public void run() {
+    do {
+      Pending<T> pending;
+      while ((pending = poll()) != null) {
+        subscriber.deliver(pending.value, pending.error, pending.publishedNanos);
+      }
+      isScheduled.set(false);
+
+      // an update may have been offered after the last delivery, but before the flag was reset
+    } while (!isEmpty() && isScheduled.compareAndSet(false, true));
+  }
+
+  /** Removes the oldest buffered update, waking up any blocked publishers. */
+  @Nullable
+  private Pending<T> poll() {
+    synchronized (buffer) {
+      Pending<T> pending = buffer.pollFirst();
+      if (pending != null) {
+        subscriber.metrics().addQueued(-1);
+        buffer.notifyAll();
+      }
+      return pending;
+    }
+  }
+
+  private boolean isEmpty() {
+    synchronized (buffer) {
+      return buffer.isEmpty();
+    }
+  }
+
+  @Override
+  public SubscriptionMetrics metrics() {
+    return subscriber.metrics();
+  }
+
+  /** Holds an undelivered value (or error). */
+  private static final class Pending<T> {
+    @Nullable private final T value;
+    @Nullable private final Throwable error;
+    private final long publishedNanos;
+
+    private Pending(@Nullable T value, @Nullable Throwable error, long publishedNanos) {
+      this.value = value;
+      this.error = error;
+      this.publishedNanos = publishedNanos;
+    }
+  }
+}
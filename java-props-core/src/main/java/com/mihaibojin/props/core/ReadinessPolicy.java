@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+/** Determines how {@link Props} handles reads made before its initial load has completed. */
+public enum ReadinessPolicy {
+  /**
+   * Block the reading thread until the initial load completes, or until the configured deadline
+   * expires; in the latter case, values are resolved from whatever has been loaded so far.
+   */
+  BLOCK,
+
+  /** Do not block; resolve to <code>null</code>, causing props to return their default values. */
+  SERVE_DEFAULTS,
+
+  /** Do not block; throw an {@link IllegalStateException}. */
+  FAIL_FAST
+}
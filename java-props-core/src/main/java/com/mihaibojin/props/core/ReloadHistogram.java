@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long a {@link com.mihaibojin.props.core.resolvers.Resolver}'s reloads take.
+ *
+ * <p>Durations are counted in buckets whose bounds are powers of two (in microseconds), which keeps
+ * the histogram small and allocation-free, at the cost of percentiles only being accurate to
+ * within a factor of two.
+ */
+public final class ReloadHistogram {
+
+  private static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final LongAdder timeouts = new LongAdder();
+
+  ReloadHistogram() {}
+
+  /** Records a completed reload. */
+  void record(long nanos) {
+    long micros = Math.max(1, nanos / 1_000);
+    int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    buckets.incrementAndGet(bucket);
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  /** Records a reload which did not complete before its deadline. */
+  void recordTimeout() {
+    timeouts.increment();
+  }
+
+  /** Returns the number of completed reloads. */
+  public long count() {
+    return count.sum();
+  }
+
+  /** Returns the number of reloads which did not complete before their deadline. */
+  public long timeouts() {
+    return timeouts.sum();
+  }
+
+  /** Returns the average duration of all completed reloads. */
+  public Duration mean() {
+    long count = this.count.sum();
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+  }
+
+  /** Returns the duration of the slowest completed reload. */
+  public Duration max() {
+    return Duration.ofNanos(maxNanos.get());
+  }
+
+  /**
+   * Returns an upper bound of the specified percentile of reload durations.
+   *
+   * @param percentile a value between 0 and 100
+   * @throws IllegalArgumentException if the percentile is out of range
+   */
+  public Duration percentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Invalid percentile: " + percentile);
+    }
+
+    long total = 0;
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && counts[i] > 0) {
+        // the upper bound of the bucket
+        return Duration.ofNanos(Math.min((2L << i) * 1_000, maxNanos.get()));
+      }
+    }
+    return Duration.ZERO;
+  }
+
+  @Override
+  public String toString() {
+    return format(
+        "ReloadHistogram{count=%d, timeouts=%d, mean=%s, p50=%s, p99=%s, max=%s}",
+        count(), timeouts(), mean(), percentile(50), percentile(99), max());
+  }
+}
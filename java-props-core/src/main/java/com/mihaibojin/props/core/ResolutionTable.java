@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.util.Objects.isNull;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.resolvers.ReadOnlyResolver;
+import com.mihaibojin.props.core.resolvers.Resolver;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which {@link Resolver} wins each key, allowing {@link Props} to resolve a key with a
+ * single hash lookup (and a single call to the winning resolver), regardless of how many resolvers
+ * are registered.
+ *
+ * <p>Only the id of the winning resolver is stored; values are always read from it, which means
+ * that the table does not duplicate the resolvers' state on the heap. Keys are routed lazily, the
+ * first time they are resolved, and routes are discarded via {@link #invalidate(Collection)}, as
+ * soon as a reload reports that the key has changed. Keys which are not defined by any resolver
+ * are also remembered, up to a limit.
+ *
+ * <p>{@link ReadOnlyResolver}s (e.g., system properties) read their values on every call and
+ * cannot report changes; they are consulted on every lookup, unless they are outranked by the
+ * memoized winner.
+ */
+final class ResolutionTable {
+
+  /** Marks keys which are not defined by any {@link Resolver}. */
+  static final ResolvedValue MISSING = new ResolvedValue(null, null);
+
+  private final String[] ids;
+  private final Resolver[] resolvers;
+  private final int[] liveResolvers;
+  private final int maxMisses;
+  private final ConcurrentHashMap<String, Integer> routes = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> misses = new ConcurrentHashMap<>();
+  private final AtomicLong epoch = new AtomicLong();
+
+  /**
+   * Constructs a table for the specified resolvers.
+   *
+   * @param resolvers the resolvers, keyed by id and ordered by priority (highest first)
+   * @param maxMisses the maximum number of keys which are remembered as not being defined
+   */
+  ResolutionTable(Map<String, Resolver> resolvers, int maxMisses) {
+    this.ids = resolvers.keySet().toArray(new String[0]);
+    this.resolvers = resolvers.values().toArray(new Resolver[0]);
+    this.maxMisses = maxMisses;
+
+    List<Integer> live = new ArrayList<>();
+    for (int i = 0; i < this.resolvers.length; i++) {
+      if (this.resolvers[i] instanceof ReadOnlyResolver) {
+        live.add(i);
+      }
+    }
+    this.liveResolvers = live.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /** Returns the winning value for the specified key, or {@link #MISSING}. */
+  ResolvedValue get(String key) {
+    Integer route = routes.get(key);
+    int winner = !isNull(route) ? route : misses.containsKey(key) ? resolvers.length : -1;
+    if (winner < 0) {
+      return resolveAndMemoize(key);
+    }
+
+    // live resolvers which outrank the winner can define the key at any time
+    for (int i : liveResolvers) {
+      if (i >= winner) {
+        break;
+      }
+      String value = resolvers[i].get(key);
+      if (!isNull(value)) {
+        return new ResolvedValue(value, ids[i]);
+      }
+    }
+
+    if (winner == resolvers.length) {
+      return MISSING;
+    }
+
+    String value = resolvers[winner].get(key);
+    if (!isNull(value)) {
+      return new ResolvedValue(value, ids[winner]);
+    }
+
+    // a live resolver no longer defines the key
+    routes.remove(key, route);
+    return resolveAndMemoize(key);
+  }
+
+  /**
+   * Discards the routes of the specified keys, which will be resolved again on their next lookup.
+   */
+  void invalidate(Collection<String> keys) {
+    epoch.incrementAndGet();
+    for (String key : keys) {
+      routes.remove(key);
+      misses.remove(key);
+    }
+  }
+
+  /** Discards all routes. */
+  void invalidateAll() {
+    epoch.incrementAndGet();
+    routes.clear();
+    misses.clear();
+  }
+
+  /** Searches all resolvers, in priority order, and remembers which of them won. */
+  private ResolvedValue resolveAndMemoize(String key) {
+    long start = epoch.get();
+    for (int i = 0; i < resolvers.length; i++) {
+      String value = resolvers[i].get(key);
+      if (!isNull(value)) {
+        Integer route = i;
+        routes.put(key, route);
+        if (epoch.get() != start) {
+          // a concurrent reload may have changed the key after it was read
+          routes.remove(key, route);
+        }
+        return new ResolvedValue(value, ids[i]);
+      }
+    }
+
+    if (misses.size() < maxMisses) {
+      misses.put(key, Boolean.TRUE);
+      if (epoch.get() != start) {
+        misses.remove(key);
+      }
+    }
+    return MISSING;
+  }
+
+  /** Holds a resolved value and the id of the {@link Resolver} which provided it. */
+  static final class ResolvedValue {
+    @Nullable final String value;
+    @Nullable final String resolverId;
+
+    ResolvedValue(@Nullable String value, @Nullable String resolverId) {
+      this.value = value;
+      this.resolverId = resolverId;
+    }
+  }
+}
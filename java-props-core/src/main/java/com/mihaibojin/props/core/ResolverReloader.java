@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.SEVERE;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.resolvers.Resolver;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Reloads a single {@link Resolver} on its own executor, isolating it from the other resolvers.
+ *
+ * <p>By default, each resolver is reloaded on a dedicated thread, which is stopped when idle; a
+ * reload which hangs can therefore only delay the resolver which it belongs to. A new reload is
+ * not started while the previous one is still running; instead, another reload can be requested
+ * once it completes (see {@link #reloadWhenDone(Runnable)}).
+ */
+final class ResolverReloader {
+
+  private static final Logger log = Logger.getLogger(ResolverReloader.class.getName());
+
+  private final String id;
+  private final Resolver resolver;
+  private final Duration timeout;
+  private final Duration refreshInterval;
+  private final Duration refreshJitter;
+  private final Executor executor;
+  private final ReloadHistogram histogram = new ReloadHistogram();
+  // only accessed by the refresh thread
+  @Nullable private CompletableFuture<Set<String>> inFlight;
+  private final AtomicBoolean isReloadPending = new AtomicBoolean();
+
+  /**
+   * Constructs a reloader which uses the specified executor, or a dedicated thread if <code>null
+   * </code>.
+   */
+  ResolverReloader(
+      String id,
+      Resolver resolver,
+      Duration timeout,
+      Duration refreshInterval,
+      Duration refreshJitter,
+      @Nullable Executor executor) {
+    this.id = id;
+    this.resolver = resolver;
+    this.timeout = timeout;
+    this.refreshInterval = refreshInterval;
+    this.refreshJitter = refreshJitter;
+    this.executor = executor != null ? executor : newDedicatedExecutor(id);
+  }
+
+  /** Creates an executor with a single daemon thread, which is stopped when idle. */
+  private static ExecutorService newDedicatedExecutor(String id) {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "props-reload-" + id);
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  String id() {
+    return id;
+  }
+
+  Resolver resolver() {
+    return resolver;
+  }
+
+  Duration timeout() {
+    return timeout;
+  }
+
+  /** Returns the delay until the next periodic reload: the refresh interval, plus random jitter. */
+  long nextRefreshDelayMillis() {
+    long jitter = refreshJitter.toMillis();
+    long delay = refreshInterval.toMillis();
+    return jitter > 0 ? delay + ThreadLocalRandom.current().nextLong(jitter + 1) : delay;
+  }
+
+  ReloadHistogram histogram() {
+    return histogram;
+  }
+
+  /** Returns true if the previous reload has not yet completed. */
+  boolean isReloading() {
+    CompletableFuture<Set<String>> inFlight = this.inFlight;
+    return inFlight != null && !inFlight.isDone();
+  }
+
+  /**
+   * Calls <code>onDone</code> once the in-flight reload completes, allowing changes made while it
+   * was running to be reloaded; requests made while another one is pending are ignored.
+   */
+  void reloadWhenDone(Runnable onDone) {
+    CompletableFuture<Set<String>> inFlight = this.inFlight;
+    if (inFlight == null || isReloadPending.getAndSet(true)) {
+      return;
+    }
+
+    inFlight.whenComplete(
+        (keys, t) -> {
+          isReloadPending.set(false);
+          onDone.run();
+        });
+  }
+
+  /** Starts reloading the resolver and returns a future of the keys which have changed. */
+  CompletableFuture<Set<String>> reload() {
+    CompletableFuture<Set<String>> reload =
+        CompletableFuture.supplyAsync(this::timedReload, executor);
+    inFlight = reload;
+    return reload;
+  }
+
+  /** Reloads the resolver, logging any exceptions, and records how long it took. */
+  private Set<String> timedReload() {
+    long start = System.nanoTime();
+    try {
+      return resolver.reload();
+    } catch (Throwable t) {
+      log.log(SEVERE, t, () -> format("Unexpected error reloading props from %s", id));
+      return Set.of();
+    } finally {
+      histogram.record(System.nanoTime() - start);
+    }
+  }
+
+  /** Stops the dedicated thread, if one was created. */
+  void shutdown() {
+    if (executor instanceof ExecutorService) {
+      ((ExecutorService) executor).shutdownNow();
+    }
+  }
+}
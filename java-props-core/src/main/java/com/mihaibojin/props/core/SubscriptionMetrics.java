@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Describes how well a subscriber keeps up with a {@link Prop}'s updates, allowing slow subscribers
+ * to be identified.
+ *
+ * <p>Lag is measured from when an update was published until it started being delivered to the
+ * subscriber; callback latency measures how long the subscriber took to process it.
+ */
+public final class SubscriptionMetrics {
+
+  private final String key;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong maxLagNanos = new AtomicLong();
+  private final LongAdder callbackNanos = new LongAdder();
+  private final AtomicLong maxCallbackNanos = new AtomicLong();
+
+  SubscriptionMetrics(String key) {
+    this.key = key;
+  }
+
+  /** Records a delivered update. */
+  void recordDelivery(long publishedNanos, long startNanos, long endNanos) {
+    delivered.increment();
+    maxLagNanos.accumulateAndGet(startNanos - publishedNanos, Math::max);
+    callbackNanos.add(endNanos - startNanos);
+    maxCallbackNanos.accumulateAndGet(endNanos - startNanos, Math::max);
+  }
+
+  /** Records an update which was dropped, according to the subscriber's {@link OverflowPolicy}. */
+  void recordDrop() {
+    dropped.increment();
+  }
+
+  /** Adjusts the number of queued updates. */
+  void addQueued(int delta) {
+    queued.addAndGet(delta);
+  }
+
+  /** Returns the key of the prop which was subscribed to. */
+  public String key() {
+    return key;
+  }
+
+  /** Returns the number of updates waiting to be delivered to the subscriber. */
+  public int queued() {
+    return queued.get();
+  }
+
+  /** Returns the number of updates (values or errors) delivered to the subscriber. */
+  public long delivered() {
+    return delivered.sum();
+  }
+
+  /** Returns the number of updates which were dropped without being delivered. */
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  /** Returns the longest time an update waited before being delivered. */
+  public Duration maxLag() {
+    return Duration.ofNanos(maxLagNanos.get());
+  }
+
+  /** Returns the average time the subscriber took to process an update. */
+  public Duration meanCallbackLatency() {
+    long delivered = this.delivered.sum();
+    return delivered == 0 ? Duration.ZERO : Duration.ofNanos(callbackNanos.sum() / delivered);
+  }
+
+  /** Returns the longest time the subscriber took to process an update. */
+  public Duration maxCallbackLatency() {
+    return Duration.ofNanos(maxCallbackNanos.get());
+  }
+
+  @Override
+  public String toString() {
+    return format(
+        "SubscriptionMetrics{key=%s, queued=%d, delivered=%d, dropped=%d, maxLag=%s,"
+            + " meanCallbackLatency=%s, maxCallbackLatency=%s}",
+        key,
+        queued(),
+        delivered(),
+        dropped(),
+        maxLag(),
+        meanCallbackLatency(),
+        maxCallbackLatency());
+  }
+}
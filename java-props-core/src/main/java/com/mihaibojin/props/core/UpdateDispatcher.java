@@ -0,0 +1,303 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.SEVERE;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Delivers {@link Prop} updates to their subscribers, on a fixed number of dedicated (daemon)
+ * threads.
+ *
+ * <p>Each thread drains its own bounded ring buffer, in batches, and notifies all the subscribers
+ * of each updated prop. Props are assigned to a thread by their key, which guarantees that the
+ * updates of a single prop are delivered in order. Subscribers are stored in the prop they
+ * subscribed to, which means that memory usage grows with the number of subscribers, regardless of
+ * how many props are defined.
+ *
+ * <p>Publishing never blocks: if a ring buffer is full, updates spill over to an overflow queue of
+ * the same size, which is drained once the ring buffer is empty (preserving their order). If both
+ * are full, updates are dropped and counted by each subscriber's {@link
+ * SubscriptionMetrics#dropped()}. This ensures that slow subscribers can neither stall the thread
+ * which refreshes props, nor grow memory usage without bounds, and that subscribers can update
+ * other props from a delivery thread, without deadlocking. Subscribers which only need the latest
+ * value (see {@link DeliveryMode#LATEST_VALUE}) are never dropped, since each of them has at most
+ * one pending delivery.
+ *
+ * <p>Any exceptions (or errors) thrown while delivering an update are logged, and do not affect
+ * the delivery of other updates.
+ *
+ * <p>A dispatcher is created for each {@link Props} registry, unless one is specified via {@link
+ * Props.Factory#updateDispatcher(UpdateDispatcher)}; the same dispatcher can be shared by multiple
+ * registries.
+ */
+public final class UpdateDispatcher implements AutoCloseable {
+
+  private static final Logger log = Logger.getLogger(UpdateDispatcher.class.getName());
+  private static final int MAX_BATCH_SIZE = 256;
+  private static final ThreadLocal<Boolean> IS_DELIVERY_THREAD =
+      ThreadLocal.withInitial(() -> false);
+
+  private final List<Partition> partitions;
+  private final List<Thread> threads;
+
+  /**
+   * Constructs a dispatcher and starts its threads.
+   *
+   * @param threads the number of threads which deliver updates
+   * @param bufferSize the number of updates which can be queued in each thread's ring buffer, and
+   *     again in its overflow queue, before updates are dropped
+   * @throws IllegalArgumentException if either argument is not positive
+   */
+  public UpdateDispatcher(int threads, int bufferSize) {
+    this(threads, bufferSize, Thread::new);
+  }
+
+  /**
+   * Constructs a dispatcher and starts its threads, using the specified {@link ThreadFactory}
+   * (e.g., to deliver updates on virtual threads).
+   *
+   * @param threads the number of threads which deliver updates
+   * @param bufferSize the number of updates which can be queued in each thread's ring buffer, and
+   *     again in its overflow queue, before updates are dropped
+   * @param threadFactory creates the threads which deliver updates; threads are named and marked
+   *     as daemon threads, after being created
+   * @throws IllegalArgumentException if either numeric argument is not positive
+   */
+  public UpdateDispatcher(int threads, int bufferSize, ThreadFactory threadFactory) {
+    if (threads <= 0 || bufferSize <= 0) {
+      throw new IllegalArgumentException(
+          format("Invalid thread count (%d) or buffer size (%d)", threads, bufferSize));
+    }
+
+    this.partitions = new ArrayList<>(threads);
+    this.threads = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      Partition partition = new Partition(bufferSize);
+      Thread thread = threadFactory.newThread(partition::run);
+      thread.setName("props-dispatcher-" + i);
+      if (!thread.isDaemon()) {
+        // virtual threads are always daemon threads
+        thread.setDaemon(true);
+      }
+      partitions.add(partition);
+      this.threads.add(thread);
+    }
+    this.threads.forEach(Thread::start);
+  }
+
+  /**
+   * Queues the specified value, to be delivered to the specified subscribers of the prop, or
+   * records it as dropped if the dispatcher's buffers are full.
+   */
+  <T> void publish(
+      AbstractProp<T> prop, List<OnUpdateSubscriber<T>> subscribers, @Nullable T value) {
+    publish(new Update<>(prop, subscribers, value, null, System.nanoTime()));
+  }
+
+  /**
+   * Queues the specified error, to be delivered to the specified subscribers of the prop, or
+   * records it as dropped if the dispatcher's buffers are full.
+   */
+  <T> void publishError(
+      AbstractProp<T> prop, List<OnUpdateSubscriber<T>> subscribers, Throwable error) {
+    publish(new Update<>(prop, subscribers, null, error, System.nanoTime()));
+  }
+
+  private void publish(Update<?> update) {
+    if (!offer(update.prop.key(), update)) {
+      update.drop();
+    }
+  }
+
+  /**
+   * Queues a task on the thread which handles the specified key, without blocking; tasks queued
+   * for the same key run in order.
+   *
+   * @return false if the task was not queued, since the thread's buffers are full
+   */
+  boolean offer(String key, Runnable task) {
+    return partitionFor(key).offer(task);
+  }
+
+  /**
+   * Schedules a task on the thread which handles the specified key, without blocking, even if its
+   * buffers are full; tasks scheduled for the same key run in order.
+   *
+   * <p>Callers must ensure that the number of pending tasks is bounded (e.g., by scheduling at most
+   * one task per subscriber).
+   */
+  void schedule(String key, Runnable task) {
+    partitionFor(key).schedule(task);
+  }
+
+  /**
+   * Returns true if the current thread delivers updates (for any dispatcher), in which case it
+   * must not wait for other deliveries to complete, since they may be queued behind the current
+   * one.
+   */
+  static boolean isDeliveryThread() {
+    return IS_DELIVERY_THREAD.get();
+  }
+
+  private Partition partitionFor(String key) {
+    return partitions.get(Math.floorMod(key.hashCode(), partitions.size()));
+  }
+
+  /** Stops delivering updates; any queued updates are discarded. */
+  @Override
+  public void close() {
+    threads.forEach(Thread::interrupt);
+  }
+
+  /** The buffers drained by a single thread. */
+  private static final class Partition {
+    private static final Runnable WAKE_UP = () -> {};
+
+    private final BlockingQueue<Runnable> buffer;
+    private final ConcurrentLinkedQueue<Runnable> overflow = new ConcurrentLinkedQueue<>();
+    // tracked separately, since the size of a ConcurrentLinkedQueue is computed by traversing it
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    private final int overflowCapacity;
+
+    private Partition(int bufferSize) {
+      buffer = new ArrayBlockingQueue<>(bufferSize);
+      overflowCapacity = bufferSize;
+    }
+
+    /**
+     * Queues the task via the ring buffer, or via the overflow queue if the buffer is full, or if
+     * older tasks are still waiting in the overflow queue; returns false if neither has room.
+     */
+    private boolean offer(Runnable task) {
+      if (overflow.isEmpty() && buffer.offer(task)) {
+        return true;
+      }
+      if (overflowSize.incrementAndGet() > overflowCapacity) {
+        overflowSize.decrementAndGet();
+        return false;
+      }
+      addToOverflow(task);
+      return true;
+    }
+
+    /** Schedules the task like {@link #offer(Runnable)}, ignoring the overflow queue's capacity. */
+    private void schedule(Runnable task) {
+      if (overflow.isEmpty() && buffer.offer(task)) {
+        return;
+      }
+      overflowSize.incrementAndGet();
+      addToOverflow(task);
+    }
+
+    private void addToOverflow(Runnable task) {
+      // the overflow queue is drained once the buffer is empty; the thread only needs to be woken
+      // up if it might be waiting for the buffer
+      overflow.add(task);
+      if (buffer.isEmpty()) {
+        buffer.offer(WAKE_UP);
+      }
+    }
+
+    /** Runs tasks from the buffers, until the thread is interrupted. */
+    private void run() {
+      IS_DELIVERY_THREAD.set(true);
+      List<Runnable> batch = new ArrayList<>(MAX_BATCH_SIZE);
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          batch.add(buffer.take());
+          buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+          batch.forEach(Partition::runSafely);
+          batch.clear();
+
+          // tasks in the overflow queue were scheduled after all the tasks in the buffer
+          if (buffer.isEmpty()) {
+            for (Runnable task = overflow.poll(); task != null; task = overflow.poll()) {
+              overflowSize.decrementAndGet();
+              runSafely(task);
+            }
+          }
+        }
+      } catch (InterruptedException e) {
+        // the dispatcher was closed
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Runs the task, logging anything it throws; errors are caught as well, since they would
+     * otherwise stop the thread, and with it, the delivery of all the updates it handles.
+     */
+    private static void runSafely(Runnable task) {
+      try {
+        task.run();
+      } catch (Throwable t) {
+        log.log(SEVERE, t, () -> format("Could not run %s", task));
+      }
+    }
+  }
+
+  /** Holds a value (or an error) which should be delivered to a prop's subscribers. */
+  private static final class Update<T> implements Runnable {
+    private final AbstractProp<T> prop;
+    private final List<OnUpdateSubscriber<T>> subscribers;
+    @Nullable private final T value;
+    @Nullable private final Throwable error;
+    private final long publishedNanos;
+
+    private Update(
+        AbstractProp<T> prop,
+        List<OnUpdateSubscriber<T>> subscribers,
+        @Nullable T value,
+        @Nullable Throwable error,
+        long publishedNanos) {
+      this.prop = prop;
+      this.subscribers = subscribers;
+      this.value = value;
+      this.error = error;
+      this.publishedNanos = publishedNanos;
+    }
+
+    @Override
+    public void run() {
+      prop.deliver(subscribers, value, error, publishedNanos);
+    }
+
+    /** Records that the update was dropped, without being delivered to any subscriber. */
+    private void drop() {
+      for (OnUpdateSubscriber<T> subscriber : subscribers) {
+        subscriber.metrics().addQueued(-1);
+        subscriber.metrics().recordDrop();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return format("an update for %s", prop.key());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides access to virtual threads, when running on a JVM which supports them (Java 21+).
+ *
+ * <p>The library targets Java 11, which means that virtual threads can only be created
+ * reflectively.
+ */
+final class VirtualThreads {
+
+  @Nullable private static final ThreadFactory FACTORY = lookupFactory();
+
+  private VirtualThreads() {}
+
+  /** Returns true if the current JVM supports virtual threads. */
+  static boolean isAvailable() {
+    return FACTORY != null;
+  }
+
+  /**
+   * Returns a {@link ThreadFactory} which creates virtual threads.
+   *
+   * @throws UnsupportedOperationException if virtual threads are not supported
+   */
+  static ThreadFactory factory() {
+    ThreadFactory factory = FACTORY;
+    if (factory == null) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+    return factory;
+  }
+
+  /**
+   * Returns an {@link Executor} which runs each task on a new virtual thread.
+   *
+   * @throws UnsupportedOperationException if virtual threads are not supported
+   */
+  static Executor perTaskExecutor() {
+    ThreadFactory factory = factory();
+    return task -> factory.newThread(task).start();
+  }
+
+  /** Calls <code>Thread.ofVirtual().factory()</code>, if the method exists. */
+  @Nullable
+  private static ThreadFactory lookupFactory() {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -16,88 +16,179 @@
 
 package com.mihaibojin.props.core.converters;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper class that makes the API a little bit nicer, e.g.: <code>
  * Prop&lt;Boolean&gt; booleanProp = Props.factory().build().prop("key", Converters.bool());
  * </code>
+ *
+ * <p>All methods return shared, canonical, instances. This keeps memory usage low when many props
+ * are defined and allows converters to be compared by identity (e.g., when caching decoded values).
  */
 public class Cast {
 
+  private static final Converter<Boolean> BOOLEAN = new BooleanConverter() {};
+  private static final Converter<ChronoUnit> CHRONO_UNIT = new ChronoUnitConverter() {};
+  private static final Converter<Date> DATE = new DateConverter() {};
+  private static final Converter<Double> DOUBLE = new DoubleConverter() {};
+  private static final Converter<Duration> DURATION = new DurationConverter() {};
+  private static final Converter<ImmutableDoubleArray> DOUBLE_ARRAY = new DoubleArrayConverter() {};
+  private static final Converter<Float> FLOAT = new FloatConverter() {};
+  private static final Converter<Instant> INSTANT = new InstantConverter() {};
+  private static final Converter<Integer> INTEGER = new IntegerConverter() {};
+  private static final Converter<ImmutableIntArray> INT_ARRAY = new IntArrayConverter() {};
+  private static final Converter<List<Double>> LIST_OF_DOUBLE = new ListOfDoubleConverter() {};
+  private static final Converter<List<Float>> LIST_OF_FLOAT = new ListOfFloatConverter() {};
+  private static final Converter<List<Integer>> LIST_OF_INTEGER = new ListOfIntegerConverter() {};
+  private static final Converter<List<Long>> LIST_OF_LONG = new ListOfLongConverter() {};
+  private static final Converter<List<String>> LIST_OF_STRING = new ListOfStringConverter() {};
+  private static final Converter<Long> LONG = new LongConverter() {};
+  private static final Converter<ImmutableLongArray> LONG_ARRAY = new LongArrayConverter() {};
+  private static final Converter<String> STRING = new StringConverter() {};
+  private static final Converter<Path> PATH = (PathConverter) () -> false;
+  private static final Converter<Path> PATH_EXPANDING_HOME_DIR = (PathConverter) () -> true;
+  private static final Map<ChronoUnit, Converter<Duration>> NUMERIC_DURATION =
+      new EnumMap<>(ChronoUnit.class);
+  private static final Map<Class<?>, Converter<?>> BY_TYPE = new HashMap<>();
+
+  static {
+    for (ChronoUnit unit : ChronoUnit.values()) {
+      NUMERIC_DURATION.put(unit, (NumericDurationConverter) () -> unit);
+    }
+
+    BY_TYPE.put(Boolean.class, BOOLEAN);
+    BY_TYPE.put(boolean.class, BOOLEAN);
+    BY_TYPE.put(ChronoUnit.class, CHRONO_UNIT);
+    BY_TYPE.put(Date.class, DATE);
+    BY_TYPE.put(Double.class, DOUBLE);
+    BY_TYPE.put(double.class, DOUBLE);
+    BY_TYPE.put(Duration.class, DURATION);
+    BY_TYPE.put(Float.class, FLOAT);
+    BY_TYPE.put(float.class, FLOAT);
+    BY_TYPE.put(ImmutableDoubleArray.class, DOUBLE_ARRAY);
+    BY_TYPE.put(ImmutableIntArray.class, INT_ARRAY);
+    BY_TYPE.put(ImmutableLongArray.class, LONG_ARRAY);
+    BY_TYPE.put(Instant.class, INSTANT);
+    BY_TYPE.put(Integer.class, INTEGER);
+    BY_TYPE.put(int.class, INTEGER);
+    BY_TYPE.put(Long.class, LONG);
+    BY_TYPE.put(long.class, LONG);
+    BY_TYPE.put(Path.class, PATH_EXPANDING_HOME_DIR);
+    BY_TYPE.put(String.class, STRING);
+  }
+
+  /**
+   * Returns the canonical {@link Converter} for the specified type.
+   *
+   * <p>Generic types (e.g., lists) cannot be looked up by their class and must be retrieved via
+   * their dedicated method (e.g., {@link #asListOfLong()}).
+   *
+   * @throws IllegalArgumentException if a converter is not registered for the specified type
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Converter<T> forType(Class<T> type) {
+    Converter<?> converter = BY_TYPE.get(type);
+    if (isNull(converter)) {
+      throw new IllegalArgumentException("No converter registered for " + type.getName());
+    }
+    return (Converter<T>) converter;
+  }
+
   /** Returns <code>Converter&lt;Boolean&gt;</code>. */
   public static Converter<Boolean> asBoolean() {
-    return new BooleanConverter() {};
+    return BOOLEAN;
   }
 
   /** Returns <code>Converter&lt;ChronoUnit&gt;</code>. */
   public static Converter<ChronoUnit> asChronoUnit() {
-    return new ChronoUnitConverter() {};
+    return CHRONO_UNIT;
   }
 
   /** Returns <code>Converter&lt;Date&gt;</code>. */
   public static Converter<Date> asDate() {
-    return new DateConverter() {};
+    return DATE;
   }
 
   /** Returns <code>Converter&lt;Double&gt;</code>. */
   public static Converter<Double> asDouble() {
-    return new DoubleConverter() {};
+    return DOUBLE;
   }
 
   /** Returns <code>Converter&lt;Duration&gt;</code>. */
   public static Converter<Duration> asDuration() {
-    return new DurationConverter() {};
+    return DURATION;
+  }
+
+  /** Returns <code>Converter&lt;ImmutableDoubleArray&gt;</code>. */
+  public static Converter<ImmutableDoubleArray> asDoubleArray() {
+    return DOUBLE_ARRAY;
   }
 
   /** Returns <code>Converter&lt;Float&gt;</code>. */
   public static Converter<Float> asFloat() {
-    return new FloatConverter() {};
+    return FLOAT;
   }
 
   /** Returns <code>Converter&lt;Instant&gt;</code>. */
   public static Converter<Instant> asInstant() {
-    return new InstantConverter() {};
+    return INSTANT;
   }
 
   /** Returns <code>Converter&lt;Integer&gt;</code>. */
   public static Converter<Integer> asInteger() {
-    return new IntegerConverter() {};
+    return INTEGER;
+  }
+
+  /** Returns <code>Converter&lt;ImmutableIntArray&gt;</code>. */
+  public static Converter<ImmutableIntArray> asIntArray() {
+    return INT_ARRAY;
   }
 
   /** Returns <code>Converter&lt;List&lt;Double&gt;&gt;</code>. */
   public static Converter<List<Double>> asListOfDouble() {
-    return new ListOfDoubleConverter() {};
+    return LIST_OF_DOUBLE;
   }
 
   /** Returns <code>Converter&lt;List&lt;Float&gt;&gt;</code>. */
   public static Converter<List<Float>> asListOfFloat() {
-    return new ListOfFloatConverter() {};
+    return LIST_OF_FLOAT;
   }
 
   /** Returns <code>Converter&lt;List&lt;Integer&gt;&gt;</code>. */
   public static Converter<List<Integer>> asListOfInteger() {
-    return new ListOfIntegerConverter() {};
+    return LIST_OF_INTEGER;
   }
 
   /** Returns <code>Converter&lt;List&lt;Long&gt;&gt;</code>. */
   public static Converter<List<Long>> asListOfLong() {
-    return new ListOfLongConverter() {};
+    return LIST_OF_LONG;
   }
 
   /** Returns <code>Converter&lt;List&lt;String&gt;&gt;</code>. */
   public static Converter<List<String>> asListOfString() {
-    return new ListOfStringConverter() {};
+    return LIST_OF_STRING;
   }
 
   /** Returns <code>Converter&lt;Long&gt;</code>. */
   public static Converter<Long> asLong() {
-    return new LongConverter() {};
+    return LONG;
+  }
+
+  /** Returns <code>Converter&lt;ImmutableLongArray&gt;</code>. */
+  public static Converter<ImmutableLongArray> asLongArray() {
+    return LONG_ARRAY;
   }
 
   /**
@@ -114,7 +205,8 @@ public class Cast {
    * @param unit specifies the {@link ChronoUnit} in which the numeric value is measured
    */
   public static Converter<Duration> asNumericDuration(ChronoUnit unit) {
-    return (NumericDurationConverter) () -> unit;
+    // the map contains all ChronoUnit values
+    return requireNonNull(NUMERIC_DURATION.get(unit));
   }
 
   /** Returns <code>Converter&lt;Path&gt;</code>. */
@@ -128,11 +220,11 @@ public class Cast {
    * @param expandHomeDirectory if true, expands <code>~</code> to the user's home directory
    */
   public static Converter<Path> asPath(boolean expandHomeDirectory) {
-    return (PathConverter) () -> expandHomeDirectory;
+    return expandHomeDirectory ? PATH_EXPANDING_HOME_DIR : PATH;
   }
 
   /** Returns <code>Converter&lt;String&gt;</code>. */
   public static Converter<String> asString() {
-    return new StringConverter() {};
+    return STRING;
   }
 }
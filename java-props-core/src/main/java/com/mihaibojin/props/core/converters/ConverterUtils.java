@@ -19,13 +19,12 @@ package com.mihaibojin.props.core.converters;
 import static java.util.logging.Level.SEVERE;
 
 import com.mihaibojin.props.core.annotations.Nullable;
-import java.text.NumberFormat;
-import java.text.ParseException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
@@ -39,22 +38,125 @@ class ConverterUtils {
   private static final Logger log = Logger.getLogger(ConverterUtils.class.getName());
 
   /**
-   * Attempts to parse a {@link String} to a {@link Number} and returns <code>null</code> if it
+   * Attempts to parse a {@link String} to an {@link Integer} and returns <code>null</code> if it
    * cannot.
    *
-   * <p>This methods logs a {@link java.util.logging.Level#SEVERE} event instead of throwing {@link
-   * ParseException}s.
+   * <p>Only base-10 integers (optionally signed and surrounded by whitespace) are accepted; values
+   * which overflow an <code>int</code> are rejected. This methods logs a {@link
+   * java.util.logging.Level#SEVERE} event instead of throwing {@link NumberFormatException}s.
+   */
+  @Nullable
+  static Integer safeParseInteger(String value) {
+    try {
+      return parseInt(value, 0, value.length());
+    } catch (NumberFormatException e) {
+      logParseError(value, "an Integer");
+      return null;
+    }
+  }
+
+  /**
+   * Attempts to parse a {@link String} to a {@link Long} and returns <code>null</code> if it
+   * cannot.
+   *
+   * <p>Only base-10 integers (optionally signed and surrounded by whitespace) are accepted; values
+   * which overflow a <code>long</code> are rejected. This methods logs a {@link
+   * java.util.logging.Level#SEVERE} event instead of throwing {@link NumberFormatException}s.
+   */
+  @Nullable
+  static Long safeParseLong(String value) {
+    try {
+      return parseLong(value, 0, value.length());
+    } catch (NumberFormatException e) {
+      logParseError(value, "a Long");
+      return null;
+    }
+  }
+
+  /**
+   * Attempts to parse a {@link String} to a {@link Float} and returns <code>null</code> if it
+   * cannot.
+   *
+   * <p>The value is parsed using {@link Float#parseFloat(String)}, which is locale-independent and
+   * rounds directly to the nearest <code>float</code>. This methods logs a {@link
+   * java.util.logging.Level#SEVERE} event instead of throwing {@link NumberFormatException}s.
    */
   @Nullable
-  static Number safeParseNumber(String value) {
+  static Float safeParseFloat(String value) {
     try {
-      return NumberFormat.getInstance().parse(value);
-    } catch (ParseException e) {
-      log.log(SEVERE, e, () -> "Could not parse " + value + " to a number");
+      return Float.parseFloat(value);
+    } catch (NumberFormatException e) {
+      logParseError(value, "a Float");
       return null;
     }
   }
 
+  /**
+   * Attempts to parse a {@link String} to a {@link Double} and returns <code>null</code> if it
+   * cannot.
+   *
+   * <p>The value is parsed using {@link Double#parseDouble(String)}, which is locale-independent.
+   * This methods logs a {@link java.util.logging.Level#SEVERE} event instead of throwing {@link
+   * NumberFormatException}s.
+   */
+  @Nullable
+  static Double safeParseDouble(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      logParseError(value, "a Double");
+      return null;
+    }
+  }
+
+  /**
+   * Parses the <code>[start, end)</code> range of the specified {@link CharSequence} as a base-10
+   * <code>int</code>, ignoring any leading or trailing whitespace, without allocating.
+   *
+   * @throws NumberFormatException if the range does not represent an <code>int</code>
+   */
+  static int parseInt(CharSequence value, int start, int end) {
+    start = skipLeadingWhitespace(value, start, end);
+    end = skipTrailingWhitespace(value, start, end);
+    return Integer.parseInt(value, start, end, 10);
+  }
+
+  /**
+   * Parses the <code>[start, end)</code> range of the specified {@link CharSequence} as a base-10
+   * <code>long</code>, ignoring any leading or trailing whitespace, without allocating.
+   *
+   * @throws NumberFormatException if the range does not represent a <code>long</code>
+   */
+  static long parseLong(CharSequence value, int start, int end) {
+    start = skipLeadingWhitespace(value, start, end);
+    end = skipTrailingWhitespace(value, start, end);
+    return Long.parseLong(value, start, end, 10);
+  }
+
+  /** Returns the index of the first non-whitespace character in the specified range. */
+  private static int skipLeadingWhitespace(CharSequence value, int start, int end) {
+    while (start < end && Character.isWhitespace(value.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  /** Returns the index following the last non-whitespace character in the specified range. */
+  private static int skipTrailingWhitespace(CharSequence value, int start, int end) {
+    while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Logs a value which could not be parsed; the stacktrace is omitted since it does not provide
+   * any useful information and is expensive to output.
+   */
+  private static void logParseError(String value, String type) {
+    log.severe(() -> "Could not parse " + value + " as " + type);
+  }
+
   /**
    * Attempts to parse a {@link String} to an {@link ChronoUnit} and returns <code>null</code> if it
    * cannot.
@@ -112,15 +214,119 @@ class ConverterUtils {
   }
 
   /**
-   * Splits a {@link String} by the given <code>separator</code>, casts every item using the
-   * specified <code>mapper</code> func and returns a {@link List} of numbers.
+   * Splits a {@link String} by the given <code>separator</code>, parses every item using the
+   * specified <code>parser</code> func and returns a {@link List} of numbers; items which cannot
+   * be parsed are skipped.
    */
   static <T extends Number> List<T> splitStringAsNumbers(
-      String input, String separator, Function<Number, T> mapper) {
+      String input, String separator, Function<String, T> parser) {
     return Stream.of(input.split(Pattern.quote(separator)))
-        .map(ConverterUtils::safeParseNumber)
+        .map(parser)
         .filter(Objects::nonNull)
-        .map(mapper)
         .collect(Collectors.toList());
   }
+
+  /**
+   * Splits a {@link String} by the given <code>separator</code> and parses every item directly
+   * into a <code>long[]</code>, without boxing; items which cannot be parsed are skipped.
+   */
+  static ImmutableLongArray splitStringAsLongArray(String input, String separator) {
+    long[] values = new long[countItems(input, separator)];
+    int count = 0;
+    int start = 0;
+    while (start >= 0) {
+      int end = nextSeparator(input, separator, start);
+      if (!isBlank(input, start, end)) {
+        try {
+          values[count] = parseLong(input, start, end);
+          count++;
+        } catch (NumberFormatException e) {
+          logParseError(input.substring(start, end), "a Long");
+        }
+      }
+      start = end < input.length() ? end + separator.length() : -1;
+    }
+
+    return new ImmutableLongArray(count == values.length ? values : Arrays.copyOf(values, count));
+  }
+
+  /**
+   * Splits a {@link String} by the given <code>separator</code> and parses every item directly
+   * into a <code>int[]</code>, without boxing; items which cannot be parsed are skipped.
+   */
+  static ImmutableIntArray splitStringAsIntArray(String input, String separator) {
+    int[] values = new int[countItems(input, separator)];
+    int count = 0;
+    int start = 0;
+    while (start >= 0) {
+      int end = nextSeparator(input, separator, start);
+      if (!isBlank(input, start, end)) {
+        try {
+          values[count] = parseInt(input, start, end);
+          count++;
+        } catch (NumberFormatException e) {
+          logParseError(input.substring(start, end), "an Integer");
+        }
+      }
+      start = end < input.length() ? end + separator.length() : -1;
+    }
+
+    return new ImmutableIntArray(count == values.length ? values : Arrays.copyOf(values, count));
+  }
+
+  /**
+   * Splits a {@link String} by the given <code>separator</code> and parses every item directly
+   * into a <code>double[]</code>, without boxing; items which cannot be parsed are skipped.
+   *
+   * <p>Unlike integral values, each item is copied to a {@link String} before being parsed, since
+   * {@link Double#parseDouble(String)} does not accept a range.
+   */
+  static ImmutableDoubleArray splitStringAsDoubleArray(String input, String separator) {
+    double[] values = new double[countItems(input, separator)];
+    int count = 0;
+    int start = 0;
+    while (start >= 0) {
+      int end = nextSeparator(input, separator, start);
+      if (!isBlank(input, start, end)) {
+        try {
+          values[count] = Double.parseDouble(input.substring(start, end));
+          count++;
+        } catch (NumberFormatException e) {
+          logParseError(input.substring(start, end), "a Double");
+        }
+      }
+      start = end < input.length() ? end + separator.length() : -1;
+    }
+
+    return new ImmutableDoubleArray(count == values.length ? values : Arrays.copyOf(values, count));
+  }
+
+  /** Counts the number of items separated by <code>separator</code>. */
+  private static int countItems(String input, String separator) {
+    if (separator.isEmpty()) {
+      return 1;
+    }
+
+    int count = 1;
+    int i = input.indexOf(separator);
+    while (i >= 0) {
+      count++;
+      i = input.indexOf(separator, i + separator.length());
+    }
+    return count;
+  }
+
+  /**
+   * Returns the index of the next <code>separator</code>, starting from <code>start</code>, or the
+   * input's length if one is not found.
+   */
+  private static int nextSeparator(String input, String separator, int start) {
+    int end = separator.isEmpty() ? -1 : input.indexOf(separator, start);
+    return end < 0 ? input.length() : end;
+  }
+
+  /** Returns <code>true</code> if the specified range only contains whitespace. */
+  private static boolean isBlank(CharSequence value, int start, int end) {
+    return skipLeadingWhitespace(value, start, end) == end;
+  }
 }
@@ -16,8 +16,7 @@
 
 package com.mihaibojin.props.core.converters;
 
-import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseNumber;
-import static java.util.Objects.isNull;
+import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseFloat;
 
 import com.mihaibojin.props.core.annotations.Nullable;
 
@@ -27,11 +26,6 @@ public interface FloatConverter extends Converter<Float> {
   @Override
   @Nullable
   default Float decode(String value) {
-    Number number = safeParseNumber(value);
-    if (isNull(number)) {
-      return null;
-    }
-
-    return number.floatValue();
+    return safeParseFloat(value);
   }
 }
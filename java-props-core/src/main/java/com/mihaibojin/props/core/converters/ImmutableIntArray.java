@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.converters;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable view over a <code>int[]</code>, which allows array props to be read without boxing
+ * each element.
+ */
+public final class ImmutableIntArray {
+
+  private static final ImmutableIntArray EMPTY = new ImmutableIntArray(new int[0]);
+
+  private final int[] values;
+
+  /** Wraps the specified array, which must not be modified afterwards. */
+  ImmutableIntArray(int[] values) {
+    this.values = values;
+  }
+
+  /** Returns an instance which holds a copy of the specified values. */
+  public static ImmutableIntArray of(int... values) {
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    return new ImmutableIntArray(values.clone());
+  }
+
+  /** Returns the number of elements. */
+  public int length() {
+    return values.length;
+  }
+
+  /** Returns <code>true</code> if this array does not contain any elements. */
+  public boolean isEmpty() {
+    return values.length == 0;
+  }
+
+  /**
+   * Returns the element at the specified index.
+   *
+   * @throws ArrayIndexOutOfBoundsException if the index is out of bounds
+   */
+  public int get(int index) {
+    return values[index];
+  }
+
+  /** Returns a copy of the underlying array. */
+  public int[] toArray() {
+    return values.clone();
+  }
+
+  /** Returns a sequential stream over all elements. */
+  public IntStream stream() {
+    return Arrays.stream(values);
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ImmutableIntArray)) {
+      return false;
+    }
+    return Arrays.equals(values, ((ImmutableIntArray) o).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(values);
+  }
+}
@@ -16,8 +16,7 @@
 
 package com.mihaibojin.props.core.converters;
 
-import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseNumber;
-import static java.util.Objects.isNull;
+import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseInteger;
 
 import com.mihaibojin.props.core.annotations.Nullable;
 
@@ -27,11 +26,6 @@ public interface IntegerConverter extends Converter<Integer> {
   @Override
   @Nullable
   default Integer decode(String value) {
-    Number number = safeParseNumber(value);
-    if (isNull(number)) {
-      return null;
-    }
-
-    return number.intValue();
+    return safeParseInteger(value);
   }
 }
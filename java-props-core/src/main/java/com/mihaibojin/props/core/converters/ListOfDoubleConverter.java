@@ -28,6 +28,6 @@ public interface ListOfDoubleConverter extends Converter<List<Double>>, ListConv
 
   @Override
   default List<Double> decode(String value) {
-    return splitStringAsNumbers(value, separator(), Number::doubleValue);
+    return splitStringAsNumbers(value, separator(), ConverterUtils::safeParseDouble);
   }
 }
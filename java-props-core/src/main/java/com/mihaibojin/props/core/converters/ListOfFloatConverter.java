@@ -28,6 +28,6 @@ public interface ListOfFloatConverter extends Converter<List<Float>>, ListConver
 
   @Override
   default List<Float> decode(String value) {
-    return splitStringAsNumbers(value, separator(), Number::floatValue);
+    return splitStringAsNumbers(value, separator(), ConverterUtils::safeParseFloat);
   }
 }
@@ -28,6 +28,6 @@ public interface ListOfIntegerConverter extends Converter<List<Integer>>, ListCo
 
   @Override
   default List<Integer> decode(String value) {
-    return splitStringAsNumbers(value, separator(), Number::intValue);
+    return splitStringAsNumbers(value, separator(), ConverterUtils::safeParseInteger);
   }
 }
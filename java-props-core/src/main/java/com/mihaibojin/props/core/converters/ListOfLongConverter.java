@@ -28,6 +28,6 @@ public interface ListOfLongConverter extends Converter<List<Long>>, ListConverte
 
   @Override
   default List<Long> decode(String value) {
-    return splitStringAsNumbers(value, separator(), Number::longValue);
+    return splitStringAsNumbers(value, separator(), ConverterUtils::safeParseLong);
   }
 }
@@ -16,7 +16,7 @@
 
 package com.mihaibojin.props.core.converters;
 
-import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseNumber;
+import static com.mihaibojin.props.core.converters.ConverterUtils.safeParseLong;
 import static java.util.Objects.isNull;
 
 import com.mihaibojin.props.core.annotations.Nullable;
@@ -29,12 +29,12 @@ public interface NumericDurationConverter extends Converter<Duration> {
   @Override
   @Nullable
   default Duration decode(String value) {
-    Number number = safeParseNumber(value);
+    Long number = safeParseLong(value);
     if (isNull(number)) {
       return null;
     }
 
-    return Duration.of(number.longValue(), unit());
+    return Duration.of(number, unit());
   }
 
   /**
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * A compact, binary format for storing properties, which can be memory-mapped and read without
+ * being parsed (see {@link BinarySnapshotResolver}).
+ *
+ * <p>A snapshot consists of (all numbers are big-endian):
+ *
+ * <ul>
+ *   <li>a 24 byte header: magic number (4 bytes), format version (2 bytes), reserved (2 bytes),
+ *       number of entries (4 bytes), number of strings (4 bytes), and a CRC32C checksum of
+ *       everything following the header (8 bytes)
+ *   <li>the entry table: a (key, value) pair of string indices for each property (8 bytes), sorted
+ *       by the keys' UTF-8 bytes, which allows keys to be looked up with a binary search
+ *   <li>the offset index: the offset at which each string starts, relative to the start of the
+ *       string data, followed by the length of the string data (4 bytes each)
+ *   <li>the string data: all the UTF-8 encoded strings; identical strings (e.g., values such as
+ *       <code>true</code>) are interned and only stored once
+ * </ul>
+ *
+ * <p>Reading a snapshot only validates its header and size. All string indices and offsets are
+ * bounds-checked when they are read, and entries which refer to invalid strings are treated as
+ * missing; use {@link #hasValidChecksum()} to detect any corruption upfront.
+ */
+public final class BinarySnapshot {
+
+  static final int MAGIC = 0x50524f50; // "PROP"
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 24;
+  static final BinarySnapshot EMPTY = read(encode(Map.of()));
+
+  private static final int ENTRY_SIZE = 8;
+  private static final int CHECKSUM_OFFSET = 16;
+
+  private final ByteBuffer buffer;
+  private final int entryCount;
+  private final int stringCount;
+  private final int offsetsStart;
+  private final int dataStart;
+
+  private BinarySnapshot(ByteBuffer buffer, int entryCount, int stringCount) {
+    this.buffer = buffer;
+    this.entryCount = entryCount;
+    this.stringCount = stringCount;
+    this.offsetsStart = HEADER_SIZE + entryCount * ENTRY_SIZE;
+    this.dataStart = offsetsStart + (stringCount + 1) * Integer.BYTES;
+  }
+
+  /**
+   * Writes the specified properties to a snapshot file, which atomically replaces the <code>
+   * target</code>, if it exists.
+   *
+   * @throws IllegalArgumentException if the snapshot would be larger than 2GB
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Map<String, String> properties, Path target) throws IOException {
+    Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), ".snapshot", ".tmp");
+    try {
+      Files.write(temp, encode(properties).array());
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Encodes the specified properties in the snapshot format.
+   *
+   * @throws IllegalArgumentException if the snapshot would be larger than 2GB
+   */
+  static ByteBuffer encode(Map<String, String> properties) {
+    // intern all strings, assigning each of them an index
+    Map<String, Integer> indices = new HashMap<>();
+    List<byte[]> strings = new ArrayList<>();
+    int[][] entries = new int[properties.size()][];
+    int count = 0;
+    for (Map.Entry<String, String> property : properties.entrySet()) {
+      int key = intern(property.getKey(), indices, strings);
+      int value = intern(property.getValue(), indices, strings);
+      entries[count++] = new int[] {key, value};
+    }
+    Arrays.sort(entries, (a, b) -> Arrays.compareUnsigned(strings.get(a[0]), strings.get(b[0])));
+
+    long dataSize = 0;
+    for (byte[] string : strings) {
+      dataSize += string.length;
+    }
+    long size =
+        HEADER_SIZE
+            + (long) entries.length * ENTRY_SIZE
+            + (strings.size() + 1L) * Integer.BYTES
+            + dataSize;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(format("The snapshot is too large (%d bytes)", size));
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+    buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+    buffer.putInt(entries.length).putInt(strings.size()).putLong(0);
+    for (int[] entry : entries) {
+      buffer.putInt(entry[0]).putInt(entry[1]);
+    }
+    int offset = 0;
+    for (byte[] string : strings) {
+      buffer.putInt(offset);
+      offset += string.length;
+    }
+    buffer.putInt(offset);
+    for (byte[] string : strings) {
+      buffer.put(string);
+    }
+
+    buffer.putLong(CHECKSUM_OFFSET, checksum(buffer));
+    buffer.flip();
+    return buffer;
+  }
+
+  /** Returns the index of the specified string, adding it to the list if it was not seen before. */
+  private static int intern(String value, Map<String, Integer> indices, List<byte[]> strings) {
+    return indices.computeIfAbsent(
+        value,
+        v -> {
+          strings.add(v.getBytes(UTF_8));
+          return strings.size() - 1;
+        });
+  }
+
+  /** Computes the checksum of everything following the header. */
+  private static long checksum(ByteBuffer buffer) {
+    ByteBuffer body = buffer.duplicate();
+    body.position(HEADER_SIZE).limit(buffer.capacity());
+    Checksum checksum = new CRC32C();
+    checksum.update(body);
+    return checksum.getValue();
+  }
+
+  /**
+   * Validates the header of the specified snapshot, without reading any of its entries.
+   *
+   * @throws IllegalArgumentException if the buffer does not contain a valid snapshot
+   */
+  static BinarySnapshot read(ByteBuffer buffer) {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a props snapshot");
+    }
+    if (buffer.getShort(4) != VERSION) {
+      throw new IllegalArgumentException(
+          format("Unsupported snapshot version %d", buffer.getShort(4)));
+    }
+
+    int entryCount = buffer.getInt(8);
+    int stringCount = buffer.getInt(12);
+    long dataStart =
+        HEADER_SIZE + (long) entryCount * ENTRY_SIZE + (stringCount + 1L) * Integer.BYTES;
+    if (entryCount < 0 || stringCount < 0 || dataStart > buffer.limit()) {
+      throw new IllegalArgumentException("Truncated or corrupted snapshot");
+    }
+
+    BinarySnapshot snapshot = new BinarySnapshot(buffer, entryCount, stringCount);
+    if (snapshot.stringStart(stringCount) != buffer.limit()) {
+      throw new IllegalArgumentException("Truncated or corrupted snapshot");
+    }
+    return snapshot;
+  }
+
+  /** Returns true if the snapshot's contents match its checksum. */
+  boolean hasValidChecksum() {
+    return checksum(buffer) == checksum();
+  }
+
+  /** Returns the checksum stored in the header. */
+  long checksum() {
+    return buffer.getLong(CHECKSUM_OFFSET);
+  }
+
+  /** Returns the number of properties in the snapshot. */
+  int size() {
+    return entryCount;
+  }
+
+  /**
+   * Returns the value of the specified key, or <code>null</code> if it is not defined, or if the
+   * snapshot is corrupted.
+   */
+  @Nullable
+  String get(String key) {
+    try {
+      int low = 0;
+      int high = entryCount - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = compare(keyIndex(mid), key);
+        if (cmp < 0) {
+          low = mid + 1;
+        } else if (cmp > 0) {
+          high = mid - 1;
+        } else {
+          return decode(valueIndex(mid));
+        }
+      }
+      return null;
+    } catch (IllegalArgumentException e) {
+      // the entry refers to an invalid string
+      return null;
+    }
+  }
+
+  /**
+   * Compares two snapshots entry by entry, without decoding any unchanged keys or values.
+   *
+   * @return the {@link Set} of new, updated, and deleted keys
+   * @throws IllegalArgumentException if either snapshot is corrupted
+   */
+  Set<String> diff(BinarySnapshot previous) {
+    Set<String> changed = new HashSet<>();
+    int i = 0;
+    int j = 0;
+    while (i < entryCount || j < previous.entryCount) {
+      int cmp;
+      if (i == entryCount) {
+        cmp = 1;
+      } else if (j == previous.entryCount) {
+        cmp = -1;
+      } else {
+        cmp = compare(keyIndex(i), previous, previous.keyIndex(j));
+      }
+
+      if (cmp < 0) {
+        changed.add(decode(keyIndex(i++)));
+      } else if (cmp > 0) {
+        changed.add(previous.decode(previous.keyIndex(j++)));
+      } else {
+        if (compare(valueIndex(i), previous, previous.valueIndex(j)) != 0) {
+          changed.add(decode(keyIndex(i)));
+        }
+        i++;
+        j++;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Returns a view of all the keys in the snapshot, which are decoded as they are iterated; keys
+   * which cannot be decoded (since the snapshot is corrupted) are skipped.
+   */
+  Set<String> keys() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<String> iterator() {
+        return new Iterator<>() {
+          private int entry;
+          @Nullable private String next = advance();
+
+          @Nullable
+          private String advance() {
+            while (entry < entryCount) {
+              try {
+                return decode(keyIndex(entry++));
+              } catch (IllegalArgumentException e) {
+                // skip the corrupted entry
+              }
+            }
+            return null;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return next != null;
+          }
+
+          @Override
+          public String next() {
+            String key = next;
+            if (key == null) {
+              throw new NoSuchElementException();
+            }
+            next = advance();
+            return key;
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object key) {
+        return key instanceof String && get((String) key) != null;
+      }
+
+      @Override
+      public int size() {
+        return entryCount;
+      }
+    };
+  }
+
+  private int keyIndex(int entry) {
+    return buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE);
+  }
+
+  private int valueIndex(int entry) {
+    return buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE + Integer.BYTES);
+  }
+
+  /**
+   * Returns the position at which the specified string starts.
+   *
+   * @throws IllegalArgumentException if the index or the offset are out of bounds
+   */
+  private int stringStart(int string) {
+    if (string < 0 || string > stringCount) {
+      throw new IllegalArgumentException(format("Invalid string index %d", string));
+    }
+    long start = (long) dataStart + buffer.getInt(offsetsStart + string * Integer.BYTES);
+    if (start < dataStart || start > buffer.limit()) {
+      throw new IllegalArgumentException(format("Invalid offset for string %d", string));
+    }
+    return (int) start;
+  }
+
+  /**
+   * Returns the length of the specified string, which starts at the specified position.
+   *
+   * @throws IllegalArgumentException if the index or the offset are out of bounds
+   */
+  private int stringLength(int string, int start) {
+    int length = stringStart(string + 1) - start;
+    if (length < 0) {
+      throw new IllegalArgumentException(format("Invalid offset for string %d", string + 1));
+    }
+    return length;
+  }
+
+  /** Decodes the specified string. */
+  private String decode(int string) {
+    int start = stringStart(string);
+    byte[] bytes = new byte[stringLength(string, start)];
+    ByteBuffer source = buffer.duplicate();
+    source.position(start);
+    source.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  /**
+   * Compares the specified string with the UTF-8 bytes of a key, without encoding the key unless it
+   * contains non-ASCII characters.
+   */
+  private int compare(int string, String key) {
+    int start = stringStart(string);
+    int length = stringLength(string, start);
+    int common = Math.min(length, key.length());
+    for (int i = 0; i < common; i++) {
+      char c = key.charAt(i);
+      if (c >= 0x80) {
+        return compare(start, length, key.getBytes(UTF_8));
+      }
+
+      int b = buffer.get(start + i) & 0xff;
+      if (b != c) {
+        return b - c;
+      }
+    }
+
+    // a key with more characters also has more bytes
+    return length - key.length();
+  }
+
+  /** Compares the specified range with the bytes, as unsigned values. */
+  private int compare(int start, int length, byte[] bytes) {
+    int common = Math.min(length, bytes.length);
+    for (int i = 0; i < common; i++) {
+      int cmp = Byte.compareUnsigned(buffer.get(start + i), bytes[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length - bytes.length;
+  }
+
+  /** Compares a string from this snapshot with a string from another one. */
+  private int compare(int string, BinarySnapshot other, int otherString) {
+    int start = stringStart(string);
+    int length = stringLength(string, start);
+    int otherStart = other.stringStart(otherString);
+    int otherLength = other.stringLength(otherString, otherStart);
+
+    int common = Math.min(length, otherLength);
+    for (int i = 0; i < common; i++) {
+      int cmp = Byte.compareUnsigned(buffer.get(start + i), other.buffer.get(otherStart + i));
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length - otherLength;
+  }
+}
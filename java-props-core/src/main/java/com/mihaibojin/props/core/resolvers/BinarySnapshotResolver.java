@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.SEVERE;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reads properties from a {@link BinarySnapshot} file, without parsing it.
+ *
+ * <p>The file is memory-mapped and only its header is validated when it is (re)loaded, which means
+ * that loading does not depend on the file's size; keys are looked up with a binary search over the
+ * snapshot's sorted entry table. Snapshots can be compiled from <code>.properties</code> files with
+ * {@link BinarySnapshot#write(java.util.Map, Path)}.
+ *
+ * <p>Reloads skip files whose metadata did not change (see {@link FileState}), or whose checksum
+ * matches the previously loaded snapshot; otherwise, the snapshots are compared entry by entry. By
+ * default, the entire file is verified against its checksum whenever it is loaded, and a corrupted
+ * snapshot fails the reload, leaving the previously loaded one in place. Verification can be
+ * disabled for large, trusted snapshots, in which case loading only reads the header and any
+ * corrupted entries are treated as missing.
+ *
+ * <p>Since the mapping reflects the file's current contents, snapshots should be replaced
+ * atomically (as {@link BinarySnapshot#write(java.util.Map, Path)} does), and never modified in
+ * place.
+ */
+public class BinarySnapshotResolver implements Resolver {
+
+  private static final Logger log = Logger.getLogger(BinarySnapshotResolver.class.getName());
+
+  private final Path location;
+  private final boolean isReloadable;
+  private final boolean verifyChecksum;
+
+  //  deepcode ignore AvoidUsingVolatile: swapped by the refresh thread, read by any thread
+  private volatile BinarySnapshot snapshot = BinarySnapshot.EMPTY;
+  @Nullable private FileState fileState;
+  //  deepcode ignore AvoidUsingVolatile: read by threads other than the refresh thread
+  private volatile ReloadReason lastReloadReason = ReloadReason.NEVER_LOADED;
+
+  /** Constructs a {@link Resolver} which should only read the snapshot once. */
+  public BinarySnapshotResolver(Path location) {
+    this(location, false);
+  }
+
+  /** Constructs a {@link Resolver} which verifies the snapshot's checksum whenever it is loaded. */
+  public BinarySnapshotResolver(Path location, boolean isReloadable) {
+    this(location, isReloadable, true);
+  }
+
+  /**
+   * Constructs a {@link Resolver} which reads properties from the specified snapshot.
+   *
+   * @param verifyChecksum if true, the entire snapshot is verified against its checksum, whenever
+   *     it is loaded; otherwise, only its header is validated
+   */
+  public BinarySnapshotResolver(Path location, boolean isReloadable, boolean verifyChecksum) {
+    this.location = location;
+    this.isReloadable = isReloadable;
+    this.verifyChecksum = verifyChecksum;
+  }
+
+  @Override
+  public boolean isReloadable() {
+    return isReloadable;
+  }
+
+  @Override
+  public Set<Path> watchedPaths() {
+    return Set.of(location);
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    return snapshot.get(key);
+  }
+
+  @Override
+  public synchronized Set<String> reload() {
+    ReloadReason reason;
+    Set<String> updatedKeys = Set.of();
+
+    try {
+      FileState state = FileState.read(location);
+      if (state == null) {
+        reason = ReloadReason.NOT_FOUND;
+      } else if (state.isUnchangedSince(fileState)) {
+        reason = ReloadReason.UNCHANGED;
+      } else {
+        BinarySnapshot updated = BinarySnapshot.read(map(location));
+        if (verifyChecksum && !updated.hasValidChecksum()) {
+          throw new IllegalArgumentException("Checksum mismatch");
+        }
+
+        BinarySnapshot previous = snapshot;
+        if (fileState == null) {
+          reason = ReloadReason.FIRST_LOAD;
+          // keys are only decoded if the caller iterates over them
+          updatedKeys = updated.keys();
+        } else if (updated.checksum() == previous.checksum()) {
+          reason = ReloadReason.CONTENT_UNCHANGED;
+        } else {
+          reason = ReloadReason.MODIFIED;
+          updatedKeys = updated.diff(previous);
+        }
+        snapshot = updated;
+        fileState = state;
+      }
+
+    } catch (IOException | IllegalArgumentException e) {
+      reason = ReloadReason.FAILED;
+      log.log(SEVERE, e, () -> format("Could not read configuration from %s", location));
+    }
+
+    lastReloadReason = reason;
+    if (log.isLoggable(FINE)) {
+      ReloadReason finalReason = reason;
+      log.fine(() -> format("Reloaded %s (%s)", location, finalReason));
+    }
+    return updatedKeys;
+  }
+
+  /** Explains why the last call to {@link #reload()} skipped or read the snapshot. */
+  public ReloadReason lastReloadReason() {
+    return lastReloadReason;
+  }
+
+  /** Returns the number of properties currently defined in the snapshot. */
+  public int size() {
+    return snapshot.size();
+  }
+
+  @Override
+  public String id() {
+    return location.toString();
+  }
+
+  /**
+   * Maps the specified file in memory.
+   *
+   * @throws IllegalArgumentException if the file is larger than 2GB
+   */
+  private static ByteBuffer map(Path location) throws IOException {
+    try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            format("%s is too large to be mapped (%d bytes)", location, size));
+      }
+
+      // the mapping remains valid after the channel is closed
+      return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+  }
+}
@@ -22,7 +22,6 @@ import static java.util.Objects.isNull;
 import com.mihaibojin.props.core.annotations.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -32,7 +31,8 @@ public class ClasspathPropertyFileResolver implements Resolver {
 
   private static final Logger log = Logger.getLogger(ClasspathPropertyFileResolver.class.getName());
 
-  private final Map<String, String> store = new HashMap<>();
+  //  deepcode ignore AvoidUsingVolatile: immutable snapshot, replaced by the refresh thread
+  private volatile Map<String, String> store = Map.of();
   private final String location;
   private final boolean isReloadable;
 
@@ -60,7 +60,11 @@ public class ClasspathPropertyFileResolver implements Resolver {
         return Set.of();
       }
 
-      return ResolverUtils.mergeMapsInPlace(store, ResolverUtils.loadPropertiesFromStream(stream));
+      // build an immutable snapshot and publish it, allowing concurrent reads without locking
+      Map<String, String> updated = Map.copyOf(ResolverUtils.loadPropertiesFromStream(stream));
+      Set<String> changedKeys = ResolverUtils.changedKeys(store, updated);
+      store = updated;
+      return changedKeys;
     } catch (IOException | IllegalArgumentException e) {
       log.log(
           Level.SEVERE, e, () -> format("Could not read properties from classpath: %s", location));
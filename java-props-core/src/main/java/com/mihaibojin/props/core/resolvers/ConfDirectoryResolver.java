@@ -0,0 +1,241 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.SEVERE;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Reads properties from all the fragment files in a directory which match a glob (by default,
+ * <code>*.properties</code>), e.g., a <code>conf.d</code> directory, and merges them into a single
+ * immutable snapshot.
+ *
+ * <p>Fragments are merged in the lexical order of their file names, with later fragments overriding
+ * earlier ones (e.g., <code>90-overrides.properties</code> overrides <code>
+ * 10-defaults.properties</code>). Since a single resolver serves all fragments, reads perform a
+ * single lookup, regardless of how many fragments are defined.
+ *
+ * <p>Reloads only parse the fragments whose metadata changed (see {@link FileState}), in parallel,
+ * and return the keys whose effective (merged) values changed. Fragments which cannot be parsed are
+ * logged, and their previous contents are retained until they can be read again.
+ */
+public class ConfDirectoryResolver implements Resolver {
+
+  private static final Logger log = Logger.getLogger(ConfDirectoryResolver.class.getName());
+  private static final String DEFAULT_GLOB = "*.properties";
+
+  //  deepcode ignore AvoidUsingVolatile: immutable snapshot, replaced by the refresh thread
+  private volatile Map<String, String> store = Map.of();
+  private final Path directory;
+  private final String glob;
+  private final boolean isReloadable;
+
+  // the fragments which were last read, ordered by file name
+  private TreeMap<String, Fragment> fragments = new TreeMap<>();
+  //  deepcode ignore AvoidUsingVolatile: read by threads other than the refresh thread
+  private volatile ReloadReason lastReloadReason = ReloadReason.NEVER_LOADED;
+
+  /** Constructs a {@link Resolver} which should only read the directory's fragments once. */
+  public ConfDirectoryResolver(Path directory) {
+    this(directory, false);
+  }
+
+  public ConfDirectoryResolver(Path directory, boolean isReloadable) {
+    this(directory, DEFAULT_GLOB, isReloadable);
+  }
+
+  /**
+   * Constructs a {@link Resolver} which reads the fragments matching the specified glob.
+   *
+   * @see java.nio.file.FileSystem#getPathMatcher(String)
+   */
+  public ConfDirectoryResolver(Path directory, String glob, boolean isReloadable) {
+    this.directory = directory;
+    this.glob = glob;
+    this.isReloadable = isReloadable;
+  }
+
+  @Override
+  public boolean isReloadable() {
+    return isReloadable;
+  }
+
+  @Override
+  public Set<Path> watchedPaths() {
+    return Set.of(directory);
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    return store.get(key);
+  }
+
+  @Override
+  public synchronized Set<String> reload() {
+    ReloadReason reason;
+    Set<String> updatedKeys = Set.of();
+
+    try {
+      TreeMap<String, Fragment> current = new TreeMap<>();
+      List<Path> changed = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, glob)) {
+        for (Path entry : entries) {
+          String name = entry.getFileName().toString();
+          FileState state = Files.isRegularFile(entry) ? FileState.read(entry) : null;
+          if (state == null) {
+            continue;
+          }
+
+          Fragment previous = fragments.get(name);
+          if (previous != null && state.isUnchangedSince(previous.state)) {
+            current.put(name, previous);
+          } else {
+            changed.add(entry);
+          }
+        }
+      }
+
+      boolean isModified = !changed.isEmpty() || !current.keySet().equals(fragments.keySet());
+      if (isModified) {
+        for (Fragment fragment : parse(changed)) {
+          current.put(fragment.name, fragment);
+        }
+        updatedKeys = merge(current);
+      }
+      fragments = current;
+
+      if (lastReloadReason == ReloadReason.NEVER_LOADED) {
+        reason = ReloadReason.FIRST_LOAD;
+      } else {
+        reason = isModified ? ReloadReason.MODIFIED : ReloadReason.UNCHANGED;
+      }
+    } catch (NoSuchFileException | NotDirectoryException e) {
+      reason = ReloadReason.NOT_FOUND;
+    } catch (IOException e) {
+      reason = ReloadReason.FAILED;
+      log.log(SEVERE, e, () -> format("Could not read configuration from %s", directory));
+    }
+
+    lastReloadReason = reason;
+    if (log.isLoggable(FINE)) {
+      ReloadReason finalReason = reason;
+      log.fine(() -> format("Reloaded %s (%s)", directory, finalReason));
+    }
+    return updatedKeys;
+  }
+
+  /**
+   * Parses the specified fragments, in parallel if there are more than one; fragments which cannot
+   * be parsed are replaced by their previous contents, if any.
+   */
+  private List<Fragment> parse(List<Path> files) {
+    if (files.size() == 1) {
+      Fragment fragment = parse(files.get(0));
+      return fragment != null ? List.of(fragment) : List.of();
+    }
+
+    return files.parallelStream()
+        .map(this::parse)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /** Parses a single fragment, returning its previous contents if it cannot be read. */
+  @Nullable
+  private Fragment parse(Path file) {
+    String name = file.getFileName().toString();
+    try {
+      // the metadata is read before the contents, ensuring that concurrent writes are detected
+      // by the next reload
+      FileState state = FileState.read(file);
+      if (state == null) {
+        return null;
+      }
+
+      try (InputStream stream = Files.newInputStream(file)) {
+        return new Fragment(name, state, ResolverUtils.loadPropertiesFromStream(stream));
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      log.log(SEVERE, e, () -> format("Could not read configuration from %s", file));
+      return fragments.get(name);
+    }
+  }
+
+  /**
+   * Merges the fragments, in order, replacing the store with an immutable snapshot, and returns the
+   * keys whose values have changed.
+   */
+  private Set<String> merge(TreeMap<String, Fragment> fragments) {
+    Map<String, String> merged = new HashMap<>();
+    for (Fragment fragment : fragments.values()) {
+      merged.putAll(fragment.values);
+    }
+
+    Map<String, String> updated = Map.copyOf(merged);
+    Set<String> changedKeys = ResolverUtils.changedKeys(store, updated);
+    store = updated;
+    return changedKeys;
+  }
+
+  /** Returns the names of the fragments which were last read, in the order they are merged. */
+  public synchronized List<String> fragments() {
+    return List.copyOf(fragments.keySet());
+  }
+
+  /** Explains why the last call to {@link #reload()} skipped or read the directory. */
+  public ReloadReason lastReloadReason() {
+    return lastReloadReason;
+  }
+
+  @Override
+  public String id() {
+    return directory.resolve(glob).toString();
+  }
+
+  /** Holds a fragment's properties and the state of its file, when it was read. */
+  private static final class Fragment {
+    private final String name;
+    private final FileState state;
+    private final Map<String, String> values;
+
+    private Fragment(String name, FileState state, Map<String, String> values) {
+      this.name = name;
+      this.state = state;
+      this.values = values;
+    }
+  }
+}
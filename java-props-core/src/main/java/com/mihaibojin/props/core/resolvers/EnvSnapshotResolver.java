@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Loads values defined in the environment, from a snapshot taken when the resolver is created.
+ *
+ * <p>Besides its exact name, each variable can be retrieved by a relaxed key, which is lower case
+ * and uses dots (or dashes) instead of underscores; e.g., <code>DB_POOL_SIZE</code> can be
+ * retrieved as <code>db.pool.size</code> or <code>db-pool-size</code>. If a prefix is specified,
+ * only variables which start with it are loaded and the prefix is removed from their names; e.g.,
+ * with the <code>APP_</code> prefix, <code>APP_DB_POOL_SIZE</code> is retrieved as <code>
+ * db.pool.size</code>. If several variables map to the same relaxed key (e.g., <code>DB_URL
+ * </code> and <code>db_url</code>), the one whose name sorts first wins.
+ *
+ * <p>All keys are indexed when the snapshot is taken, which means that lookups (including misses,
+ * which are the common case) perform a single hash lookup and do not allocate.
+ */
+public class EnvSnapshotResolver implements Resolver {
+
+  private final Map<String, String> index;
+
+  /** Loads all the variables defined in the environment. */
+  public EnvSnapshotResolver() {
+    this("");
+  }
+
+  /** Loads the variables defined in the environment whose names start with the prefix. */
+  public EnvSnapshotResolver(String prefix) {
+    this(System.getenv(), prefix);
+  }
+
+  /** Loads the specified variables whose names start with the prefix. */
+  EnvSnapshotResolver(Map<String, String> environment, String prefix) {
+    Map<String, String> exact = new HashMap<>();
+    for (Map.Entry<String, String> entry : environment.entrySet()) {
+      String name = entry.getKey();
+      if (name.startsWith(prefix) && name.length() > prefix.length()) {
+        exact.put(name.substring(prefix.length()), entry.getValue());
+      }
+    }
+
+    // exact names always win over relaxed keys, and colliding relaxed keys are resolved in a
+    // defined order, regardless of how the environment is iterated
+    Map<String, String> index = new HashMap<>(exact);
+    Map<String, String> sorted = new TreeMap<>(exact);
+    sorted.forEach(
+        (name, value) -> {
+          String relaxed = name.toLowerCase(Locale.ROOT);
+          index.putIfAbsent(relaxed.replace('_', '.'), value);
+          index.putIfAbsent(relaxed.replace('_', '-'), value);
+        });
+    this.index = Map.copyOf(index);
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    return index.get(key);
+  }
+
+  /** Returns the number of keys which can be retrieved, including relaxed keys. */
+  public int size() {
+    return index.size();
+  }
+
+  /** Snapshots never change, and therefore cannot be reloaded. */
+  @Override
+  public boolean isReloadable() {
+    return false;
+  }
+
+  @Override
+  public Set<String> reload() {
+    return Set.of();
+  }
+
+  /** Returns an id distinct from {@link EnvResolver}'s, allowing both to be registered. */
+  @Override
+  public String id() {
+    return "ENV_SNAPSHOT";
+  }
+}
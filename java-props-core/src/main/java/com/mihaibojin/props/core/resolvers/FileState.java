@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mihaibojin.props.core.resolvers;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Snapshot of a file's metadata, used to cheaply determine if a file has changed since it was last
+ * read, with a single <code>stat</code> call.
+ *
+ * <p>A file is considered changed if its identity (e.g., inode), last modified time, or size are
+ * different. Since file systems store modification times with limited precision, a file which was
+ * modified shortly before it was observed is considered "racy" and is always reported as changed,
+ * to avoid missing subsequent writes which did not change its timestamp or size.
+ */
+final class FileState {
+
+  /** Larger than the timestamp granularity of most file systems. */
+  private static final long RACY_WINDOW_MILLIS = 2_000;
+
+  @Nullable private final Object fileKey;
+  private final long lastModifiedMillis;
+  private final long size;
+  private final boolean isRacy;
+
+  private FileState(
+      @Nullable Object fileKey, long lastModifiedMillis, long size, long observedAtMillis) {
+    this.fileKey = fileKey;
+    this.lastModifiedMillis = lastModifiedMillis;
+    this.size = size;
+    this.isRacy = observedAtMillis - lastModifiedMillis < RACY_WINDOW_MILLIS;
+  }
+
+  /**
+   * Reads the metadata of the specified file, following symbolic links.
+   *
+   * @return the file's state, or <code>null</code> if the file does not exist
+   * @throws IOException if the file's attributes cannot be read
+   */
+  @Nullable
+  static FileState read(Path path) throws IOException {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return new FileState(
+          attributes.fileKey(),
+          attributes.lastModifiedTime().toMillis(),
+          attributes.size(),
+          System.currentTimeMillis());
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the file is known to be unchanged since the <code>previous</code>
+   * state was observed.
+   */
+  boolean isUnchangedSince(@Nullable FileState previous) {
+    return previous != null
+        && !previous.isRacy
+        && Objects.equals(fileKey, previous.fileKey)
+        && lastModifiedMillis == previous.lastModifiedMillis
+        && size == previous.size;
+  }
+}
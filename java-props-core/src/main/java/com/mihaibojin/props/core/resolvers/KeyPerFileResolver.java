@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.SEVERE;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reads properties from a directory which contains one file per key, where each file's name is the
+ * key and its contents are the value (e.g., a Kubernetes ConfigMap or Secret mounted as a volume).
+ *
+ * <p>Hidden entries (whose names start with <code>.</code>) and subdirectories are ignored. A
+ * single trailing line terminator is removed from each value, since most tools which write such
+ * files append one.
+ *
+ * <p>Reloads only read the files whose metadata changed (see {@link FileState}) and return the keys
+ * whose values changed. Kubernetes updates these directories atomically, by pointing the <code>
+ * ..data</code> symbolic link to a new directory; if the link exists and still points to the same
+ * directory, the reload is skipped without reading any file's metadata.
+ */
+public class KeyPerFileResolver implements Resolver {
+
+  private static final Logger log = Logger.getLogger(KeyPerFileResolver.class.getName());
+  private static final String DATA_LINK = "..data";
+
+  //  deepcode ignore AvoidUsingVolatile: immutable snapshot, replaced by the refresh thread
+  private volatile Map<String, String> store = Map.of();
+  private final Path directory;
+  private final boolean isReloadable;
+
+  private Map<String, FileState> fileStates = Map.of();
+  @Nullable private Path dataTarget;
+  //  deepcode ignore AvoidUsingVolatile: read by threads other than the refresh thread
+  private volatile ReloadReason lastReloadReason = ReloadReason.NEVER_LOADED;
+
+  /** Constructs a {@link Resolver} which should only read the directory once. */
+  public KeyPerFileResolver(Path directory) {
+    this(directory, false);
+  }
+
+  public KeyPerFileResolver(Path directory, boolean isReloadable) {
+    this.directory = directory;
+    this.isReloadable = isReloadable;
+  }
+
+  @Override
+  public boolean isReloadable() {
+    return isReloadable;
+  }
+
+  @Override
+  public Set<Path> watchedPaths() {
+    return Set.of(directory);
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    return store.get(key);
+  }
+
+  @Override
+  public synchronized Set<String> reload() {
+    ReloadReason reason;
+    Set<String> updatedKeys = Set.of();
+
+    try {
+      Path target = readDataLink();
+      if (target != null && target.equals(dataTarget)) {
+        // the directory was not swapped since it was last read
+        reason = ReloadReason.UNCHANGED;
+      } else {
+        updatedKeys = new HashSet<>();
+        boolean isModified = readFiles(updatedKeys);
+        dataTarget = target;
+
+        if (lastReloadReason == ReloadReason.NEVER_LOADED) {
+          reason = ReloadReason.FIRST_LOAD;
+        } else {
+          reason = isModified ? ReloadReason.MODIFIED : ReloadReason.UNCHANGED;
+        }
+      }
+    } catch (NoSuchFileException | NotDirectoryException e) {
+      reason = ReloadReason.NOT_FOUND;
+    } catch (IOException e) {
+      reason = ReloadReason.FAILED;
+      log.log(SEVERE, e, () -> format("Could not read configuration from %s", directory));
+    }
+
+    lastReloadReason = reason;
+    if (log.isLoggable(FINE)) {
+      ReloadReason finalReason = reason;
+      log.fine(() -> format("Reloaded %s (%s)", directory, finalReason));
+    }
+    return updatedKeys;
+  }
+
+  /** Returns the target of the <code>..data</code> link, or <code>null</code> if there is none. */
+  @Nullable
+  private Path readDataLink() throws IOException {
+    Path link = directory.resolve(DATA_LINK);
+    if (!Files.isSymbolicLink(link)) {
+      if (!Files.isDirectory(directory)) {
+        throw new NoSuchFileException(directory.toString());
+      }
+      return null;
+    }
+    return Files.readSymbolicLink(link);
+  }
+
+  /**
+   * Reads all the files whose metadata changed, replacing the store with an immutable snapshot of
+   * the directory's contents, and adds all the new, updated, and deleted keys to <code>
+   * updatedKeys</code>.
+   *
+   * @return true if any files were read or deleted
+   */
+  private boolean readFiles(Set<String> updatedKeys) throws IOException {
+    Map<String, String> previous = store;
+    Map<String, String> updated = new HashMap<>();
+    Map<String, FileState> states = new HashMap<>();
+    boolean isModified = false;
+
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+      for (Path entry : entries) {
+        String key = entry.getFileName().toString();
+        if (key.startsWith(".") || !Files.isRegularFile(entry)) {
+          continue;
+        }
+
+        FileState state = FileState.read(entry);
+        if (state == null) {
+          // the file was deleted, or is a dangling link
+          continue;
+        }
+
+        String value = previous.get(key);
+        if (value == null || !state.isUnchangedSince(fileStates.get(key))) {
+          String current = readValue(entry);
+          isModified = true;
+          if (!Objects.equals(value, current)) {
+            updatedKeys.add(key);
+          }
+          value = current;
+        }
+
+        updated.put(key, value);
+        states.put(key, state);
+      }
+    }
+
+    // keys whose files no longer exist were deleted
+    for (String key : previous.keySet()) {
+      if (!updated.containsKey(key)) {
+        updatedKeys.add(key);
+        isModified = true;
+      }
+    }
+
+    store = Map.copyOf(updated);
+    fileStates = states;
+    return isModified;
+  }
+
+  /** Reads the file's contents, removing a single trailing line terminator. */
+  private static String readValue(Path file) throws IOException {
+    // malformed input is replaced, rather than rejected, since secrets may be binary
+    String value = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    if (value.endsWith("\r\n")) {
+      return value.substring(0, value.length() - 2);
+    } else if (value.endsWith("\n")) {
+      return value.substring(0, value.length() - 1);
+    }
+    return value;
+  }
+
+  /** Explains why the last call to {@link #reload()} skipped or read the directory. */
+  public ReloadReason lastReloadReason() {
+    return lastReloadReason;
+  }
+
+  @Override
+  public String id() {
+    return directory.toString();
+  }
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static java.lang.String.format;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Reads properties from a (very large) file on disk, without loading them on the heap.
+ *
+ * <p>The file is memory-mapped and only a compact index of (key hash, offset) pairs is built when
+ * it is (re)loaded; keys and values are decoded on demand, when {@link #get(String)} is called. The
+ * file is parsed according to the rules of {@link Properties#load(java.io.InputStream)}, including
+ * its ISO 8859-1 encoding, escape sequences, and line continuations, with one exception: a
+ * trailing line which only consists of line continuations (e.g., <code>\</code> followed by a
+ * line terminator, at the end of the file) does not define a property, whereas {@link Properties}
+ * would define an empty key (<code>""</code>) with an empty value, overriding any previous value.
+ *
+ * <p>Since the mapping reflects the file's current contents, changes should be made by atomically
+ * replacing the file (e.g., writing a new file and renaming it), and not by modifying it in place.
+ * If a mapped file is truncated or modified in place, lookups which fail to read it return <code>
+ * null</code> (values already loaded by {@link com.mihaibojin.props.core.Props} are retained),
+ * until the file is reloaded.
+ */
+public class MappedPropertyFileResolver implements Resolver {
+
+  private static final Logger log = Logger.getLogger(MappedPropertyFileResolver.class.getName());
+
+  private final Path location;
+  private final boolean isReloadable;
+
+  //  deepcode ignore AvoidUsingVolatile: swapped by the refresh thread, read by any thread
+  private volatile Index index = Index.EMPTY;
+  @Nullable private FileState fileState;
+  //  deepcode ignore AvoidUsingVolatile: read by threads other than the refresh thread
+  private volatile ReloadReason lastReloadReason = ReloadReason.NEVER_LOADED;
+
+  /** Constructs a {@link Resolver} which should only read the properties file once. */
+  public MappedPropertyFileResolver(Path location) {
+    this(location, false);
+  }
+
+  public MappedPropertyFileResolver(Path location, boolean isReloadable) {
+    this.location = location;
+    this.isReloadable = isReloadable;
+  }
+
+  @Override
+  public boolean isReloadable() {
+    return isReloadable;
+  }
+
+  @Override
+  public Set<Path> watchedPaths() {
+    return Set.of(location);
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    Index current = index;
+    try {
+      return current.get(key);
+    } catch (InternalError e) {
+      // the JVM reports faults in mapped memory (e.g., the file was truncated) as InternalErrors
+      if (current.markFailed()) {
+        log.log(
+            SEVERE, e, () -> format("Could not read %s; was it modified in place?", location));
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public Set<String> reload() {
+    ReloadReason reason;
+    Set<String> updatedKeys = Set.of();
+
+    try {
+      FileState state = FileState.read(location);
+      if (state == null) {
+        reason = ReloadReason.NOT_FOUND;
+      } else if (state.isUnchangedSince(fileState)) {
+        reason = ReloadReason.UNCHANGED;
+      } else {
+        Index updated = Index.build(map(location));
+        if (fileState == null) {
+          reason = ReloadReason.FIRST_LOAD;
+          // keys are only decoded if the caller iterates over them
+          updatedKeys = updated.keys();
+        } else {
+          reason = ReloadReason.MODIFIED;
+          updatedKeys = diff(updated, index);
+        }
+        index = updated;
+        fileState = state;
+      }
+
+    } catch (IOException | IllegalArgumentException | InternalError e) {
+      reason = ReloadReason.FAILED;
+      log.log(SEVERE, e, () -> format("Could not read configuration from %s", location));
+    }
+
+    lastReloadReason = reason;
+    if (log.isLoggable(FINE)) {
+      ReloadReason finalReason = reason;
+      log.fine(() -> format("Reloaded %s (%s)", location, finalReason));
+    }
+    return updatedKeys;
+  }
+
+  /**
+   * Returns the keys which changed between the two indices, or all the keys of the updated index if
+   * the previous file can no longer be read (e.g., since it was truncated in place); in the latter
+   * case, keys which were removed cannot be determined.
+   */
+  private Set<String> diff(Index updated, Index previous) {
+    try {
+      return updated.diff(previous);
+    } catch (InternalError e) {
+      log.log(WARNING, e, () -> format("Could not compare %s with its previous version", location));
+      return updated.keys();
+    }
+  }
+
+  /** Explains why the last call to {@link #reload()} skipped or read the file. */
+  public ReloadReason lastReloadReason() {
+    return lastReloadReason;
+  }
+
+  /** Returns the number of properties currently defined in the file. */
+  public int size() {
+    return index.size;
+  }
+
+  @Override
+  public String id() {
+    return location.toString();
+  }
+
+  /**
+   * Maps the specified file in memory.
+   *
+   * @throws IllegalArgumentException if the file is larger than 2GB
+   */
+  private static ByteBuffer map(Path location) throws IOException {
+    try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            format("%s is too large to be mapped (%d bytes)", location, size));
+      }
+
+      // the mapping remains valid after the channel is closed
+      return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  /** Open-addressing hash table of key hashes and the offsets at which their entries start. */
+  private static final class Index {
+    private static final Index EMPTY =
+        new Index(ByteBuffer.allocate(0), new int[1], new int[] {-1});
+
+    private final ByteBuffer buffer;
+    private final int[] hashes;
+    private final int[] offsets;
+    private final int mask;
+    private int size;
+    private final AtomicBoolean hasFailed = new AtomicBoolean();
+
+    private Index(ByteBuffer buffer, int[] hashes, int[] offsets) {
+      this.buffer = buffer;
+      this.hashes = hashes;
+      this.offsets = offsets;
+      this.mask = offsets.length - 1;
+    }
+
+    /** Parses all the entries in the specified buffer and indexes their keys. */
+    static Index build(ByteBuffer buffer) {
+      int limit = buffer.limit();
+      int[] entryHashes = new int[16];
+      int[] entryOffsets = new int[16];
+      int count = 0;
+
+      int pos = 0;
+      while (pos < limit) {
+        int keyStart = skipToKey(buffer, pos, limit);
+        if (keyStart < 0) {
+          // blank or comment line
+          pos = -keyStart - 1;
+          continue;
+        }
+
+        int keyEnd = keyEnd(buffer, keyStart, limit);
+        if (count == entryOffsets.length) {
+          entryHashes = Arrays.copyOf(entryHashes, count * 2);
+          entryOffsets = Arrays.copyOf(entryOffsets, count * 2);
+        }
+        entryHashes[count] = new Chars(buffer, keyStart, keyEnd).hash();
+        entryOffsets[count] = keyStart;
+        count++;
+        int valueEnd = valueEnd(buffer, valueStart(buffer, keyEnd, limit), limit);
+        pos = skipLineTerminator(buffer, valueEnd, limit);
+      }
+
+      // keep the load factor at or below 50%
+      int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+      int[] offsets = new int[capacity];
+      Arrays.fill(offsets, -1);
+      Index index = new Index(buffer, new int[capacity], offsets);
+      for (int i = 0; i < count; i++) {
+        index.put(entryHashes[i], entryOffsets[i]);
+      }
+      return index;
+    }
+
+    /** Indexes the specified entry; later entries override earlier entries with the same key. */
+    private void put(int hash, int offset) {
+      int slot = spread(hash) & mask;
+      while (offsets[slot] != -1) {
+        if (hashes[slot] == hash && decodeKey(offsets[slot]).equals(decodeKey(offset))) {
+          offsets[slot] = offset;
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      hashes[slot] = hash;
+      offsets[slot] = offset;
+      size++;
+    }
+
+    /** Returns the decoded value of the specified key, or null if it is not defined. */
+    @Nullable
+    String get(String key) {
+      int hash = key.hashCode();
+      int limit = buffer.limit();
+      for (int slot = spread(hash) & mask; offsets[slot] != -1; slot = (slot + 1) & mask) {
+        if (hashes[slot] != hash) {
+          continue;
+        }
+
+        int offset = offsets[slot];
+        int keyEnd = keyEnd(buffer, offset, limit);
+        if (new Chars(buffer, offset, keyEnd).contentEquals(key)) {
+          int valueStart = valueStart(buffer, keyEnd, limit);
+          return new Chars(buffer, valueStart, valueEnd(buffer, valueStart, limit)).decode();
+        }
+      }
+      return null;
+    }
+
+    /** Returns true the first time it is called, allowing read failures to be logged once. */
+    boolean markFailed() {
+      return hasFailed.compareAndSet(false, true);
+    }
+
+    /** Returns a view of all the indexed keys, which are decoded while iterating over it. */
+    Set<String> keys() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<String> iterator() {
+          return new Iterator<>() {
+            private int slot = advance(0);
+
+            private int advance(int from) {
+              while (from < offsets.length && offsets[from] == -1) {
+                from++;
+              }
+              return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+              return slot < offsets.length;
+            }
+
+            @Override
+            public String next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              String key = decodeKey(offsets[slot]);
+              slot = advance(slot + 1);
+              return key;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+          return o instanceof String && get((String) o) != null;
+        }
+      };
+    }
+
+    /**
+     * Returns the keys which were added, removed, or changed, compared to the specified index.
+     *
+     * <p>Entries are compared by their raw (encoded) bytes, which avoids decoding unchanged values.
+     * Keys or values which were re-encoded without changing their meaning are reported as changed.
+     */
+    Set<String> diff(Index previous) {
+      Set<String> changed = new HashSet<>();
+      int limit = buffer.limit();
+      int previousLimit = previous.buffer.limit();
+
+      for (int slot = 0; slot < offsets.length; slot++) {
+        int offset = offsets[slot];
+        if (offset == -1) {
+          continue;
+        }
+
+        int keyEnd = keyEnd(buffer, offset, limit);
+        int other = previous.findRaw(hashes[slot], buffer, offset, keyEnd);
+        boolean isChanged = other == -1;
+        if (!isChanged) {
+          // the raw keys are identical, hence so are their lengths
+          int valueStart = valueStart(buffer, keyEnd, limit);
+          int otherValueStart =
+              valueStart(previous.buffer, other + (keyEnd - offset), previousLimit);
+          isChanged =
+              !rangeEquals(
+                  buffer,
+                  valueStart,
+                  valueEnd(buffer, valueStart, limit),
+                  previous.buffer,
+                  otherValueStart,
+                  valueEnd(previous.buffer, otherValueStart, previousLimit));
+        }
+        if (isChanged) {
+          changed.add(new Chars(buffer, offset, keyEnd).decode());
+        }
+      }
+
+      // find all the keys which were removed
+      for (int slot = 0; slot < previous.offsets.length; slot++) {
+        int offset = previous.offsets[slot];
+        if (offset == -1) {
+          continue;
+        }
+
+        int keyEnd = keyEnd(previous.buffer, offset, previousLimit);
+        if (findRaw(previous.hashes[slot], previous.buffer, offset, keyEnd) == -1) {
+          changed.add(new Chars(previous.buffer, offset, keyEnd).decode());
+        }
+      }
+
+      return changed;
+    }
+
+    /**
+     * Finds the entry whose raw key is identical to the specified range.
+     *
+     * @return the entry's offset, or -1 if it was not found
+     */
+    private int findRaw(int hash, ByteBuffer other, int keyStart, int keyEnd) {
+      for (int slot = spread(hash) & mask; offsets[slot] != -1; slot = (slot + 1) & mask) {
+        if (hashes[slot] != hash) {
+          continue;
+        }
+
+        int offset = offsets[slot];
+        int end = keyEnd(buffer, offset, buffer.limit());
+        if (rangeEquals(buffer, offset, end, other, keyStart, keyEnd)) {
+          return offset;
+        }
+      }
+      return -1;
+    }
+
+    /** Decodes the key of the entry starting at the specified offset. */
+    private String decodeKey(int offset) {
+      return new Chars(buffer, offset, keyEnd(buffer, offset, buffer.limit())).decode();
+    }
+
+    /** Spreads the hash's higher bits, since the table is indexed by its lower bits. */
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  /**
+   * Skips whitespace, blank lines, and comments, until the start of the next key.
+   *
+   * @return the position of the key, or <code>-(next line) - 1</code> if the current line does not
+   *     define a property
+   */
+  private static int skipToKey(ByteBuffer buffer, int pos, int limit) {
+    pos = skipWhitespace(buffer, pos, limit);
+    // continuations at the start of a line are equivalent to whitespace
+    while (pos < limit && buffer.get(pos) == '\\' && isContinuation(buffer, pos, limit)) {
+      pos = skipEscape(buffer, pos, limit);
+    }
+    if (pos >= limit) {
+      // a trailing, empty, logical line does not define a property; otherwise, it would define an
+      // empty key, overriding any real value of ""
+      return -limit - 1;
+    }
+
+    byte c = buffer.get(pos);
+    if (c == '\r' || c == '\n') {
+      return -skipLineTerminator(buffer, pos, limit) - 1;
+    }
+    if (c == '#' || c == '!') {
+      // comments cannot be continued
+      while (pos < limit && !isLineTerminator(buffer.get(pos))) {
+        pos++;
+      }
+      return -skipLineTerminator(buffer, pos, limit) - 1;
+    }
+    return pos;
+  }
+
+  /**
+   * Returns the (exclusive) end of the key which starts at the specified position, i.e., the first
+   * unescaped separator or whitespace.
+   */
+  private static int keyEnd(ByteBuffer buffer, int keyStart, int limit) {
+    int pos = keyStart;
+    while (pos < limit) {
+      byte c = buffer.get(pos);
+      if (c == '\\') {
+        pos = skipEscape(buffer, pos, limit);
+        continue;
+      }
+      if (c == '=' || c == ':' || c == ' ' || c == '\t' || c == '\f' || isLineTerminator(c)) {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  /** Returns the start of the value whose key ends at the specified position. */
+  private static int valueStart(ByteBuffer buffer, int keyEnd, int limit) {
+    int pos = keyEnd;
+    boolean hasSeparator = false;
+    if (pos < limit && (buffer.get(pos) == '=' || buffer.get(pos) == ':')) {
+      hasSeparator = true;
+      pos++;
+    }
+
+    // skip any whitespace around the (optional) separator
+    while (pos < limit) {
+      byte c = buffer.get(pos);
+      if (c == ' ' || c == '\t' || c == '\f') {
+        pos++;
+      } else if (!hasSeparator && (c == '=' || c == ':')) {
+        hasSeparator = true;
+        pos++;
+      } else if (c == '\\' && isContinuation(buffer, pos, limit)) {
+        pos = skipEscape(buffer, pos, limit);
+      } else {
+        break;
+      }
+    }
+    return pos;
+  }
+
+  /** Returns the (exclusive) end of the value, i.e., the first unescaped line terminator. */
+  private static int valueEnd(ByteBuffer buffer, int valueStart, int limit) {
+    int pos = valueStart;
+    while (pos < limit && !isLineTerminator(buffer.get(pos))) {
+      pos = buffer.get(pos) == '\\' ? skipEscape(buffer, pos, limit) : pos + 1;
+    }
+    return pos;
+  }
+
+  /** Skips an escape sequence, or a line continuation, starting with the backslash at pos. */
+  private static int skipEscape(ByteBuffer buffer, int pos, int limit) {
+    if (isContinuation(buffer, pos, limit)) {
+      return skipWhitespace(buffer, skipLineTerminator(buffer, pos + 1, limit), limit);
+    }
+    return Math.min(pos + 2, limit);
+  }
+
+  /** Returns true if the backslash at pos is immediately followed by a line terminator. */
+  private static boolean isContinuation(ByteBuffer buffer, int pos, int limit) {
+    return pos + 1 < limit && isLineTerminator(buffer.get(pos + 1));
+  }
+
+  private static boolean isLineTerminator(byte c) {
+    return c == '\r' || c == '\n';
+  }
+
+  /** Skips a single line terminator (\r, \n, or \r\n), if one is found at pos. */
+  private static int skipLineTerminator(ByteBuffer buffer, int pos, int limit) {
+    if (pos < limit && buffer.get(pos) == '\r') {
+      pos++;
+    }
+    if (pos < limit && buffer.get(pos) == '\n') {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int skipWhitespace(ByteBuffer buffer, int pos, int limit) {
+    while (pos < limit) {
+      byte c = buffer.get(pos);
+      if (c != ' ' && c != '\t' && c != '\f') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  /** Returns true if the two (raw) ranges contain the same bytes. */
+  private static boolean rangeEquals(
+      ByteBuffer a, int aStart, int aEnd, ByteBuffer b, int bStart, int bEnd) {
+    if (aEnd - aStart != bEnd - bStart) {
+      return false;
+    }
+    for (int i = 0; i < aEnd - aStart; i++) {
+      if (a.get(aStart + i) != b.get(bStart + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Iterates over the decoded characters of a raw (ISO 8859-1 encoded and escaped) range. */
+  private static final class Chars {
+    private final ByteBuffer buffer;
+    private final int end;
+    private int pos;
+
+    private Chars(ByteBuffer buffer, int start, int end) {
+      this.buffer = buffer;
+      this.pos = start;
+      this.end = end;
+    }
+
+    /**
+     * Returns the next decoded character, or -1 if the range was exhausted.
+     *
+     * @throws IllegalArgumentException if a malformed \\uxxxx escape sequence is encountered
+     */
+    private int next() {
+      while (pos < end) {
+        char c = (char) (buffer.get(pos++) & 0xFF);
+        if (c != '\\') {
+          return c;
+        }
+        if (pos >= end) {
+          // a trailing backslash is discarded
+          return -1;
+        }
+
+        c = (char) (buffer.get(pos++) & 0xFF);
+        if (c == '\r' || c == '\n') {
+          // line continuation
+          pos = skipWhitespace(buffer, skipLineTerminator(buffer, pos - 1, end), end);
+        } else if (c == 't') {
+          return '\t';
+        } else if (c == 'n') {
+          return '\n';
+        } else if (c == 'r') {
+          return '\r';
+        } else if (c == 'f') {
+          return '\f';
+        } else if (c == 'u') {
+          return nextUnicode();
+        } else {
+          return c;
+        }
+      }
+      return -1;
+    }
+
+    /** Decodes the four hex digits of a \\uxxxx escape sequence. */
+    private int nextUnicode() {
+      int value = 0;
+      for (int i = 0; i < 4; i++) {
+        // escape sequences can be split across multiple lines
+        while (pos < end && buffer.get(pos) == '\\' && isContinuation(buffer, pos, end)) {
+          pos = skipEscape(buffer, pos, end);
+        }
+
+        int digit = pos < end ? Character.digit(buffer.get(pos++), 16) : -1;
+        if (digit < 0) {
+          throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+        }
+        value = (value << 4) | digit;
+      }
+      return value;
+    }
+
+    /** Computes the {@link String#hashCode()} of the decoded characters, without decoding them. */
+    private int hash() {
+      int hash = 0;
+      for (int c = next(); c != -1; c = next()) {
+        hash = 31 * hash + c;
+      }
+      return hash;
+    }
+
+    /** Returns true if the decoded characters are equal to the specified string. */
+    private boolean contentEquals(String value) {
+      int i = 0;
+      for (int c = next(); c != -1; c = next()) {
+        if (i >= value.length() || value.charAt(i++) != c) {
+          return false;
+        }
+      }
+      return i == value.length();
+    }
+
+    /** Decodes all the characters into a string. */
+    private String decode() {
+      StringBuilder sb = new StringBuilder(end - pos);
+      for (int c = next(); c != -1; c = next()) {
+        sb.append((char) c);
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -21,22 +21,38 @@ import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
 
 import com.mihaibojin.props.core.annotations.Nullable;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
+/**
+ * Reads properties from a file on disk.
+ *
+ * <p>Reloads are skipped if the file's metadata (identity, last modified time, and size) have not
+ * changed since it was last read; optionally, a hash of the file's contents can be used to also
+ * skip parsing files which were touched, but not modified. See {@link #lastReloadReason()}.
+ */
 public class PropertyFileResolver implements Resolver {
 
   private static final Logger log = Logger.getLogger(PropertyFileResolver.class.getName());
 
-  private final Map<String, String> store = new HashMap<>();
+  //  deepcode ignore AvoidUsingVolatile: immutable snapshot, replaced by the refresh thread
+  private volatile Map<String, String> store = Map.of();
   private final Path location;
   private final boolean isReloadable;
+  private final boolean verifyContentHash;
+
+  @Nullable private FileState fileState;
+  private long contentHash;
+  //  deepcode ignore AvoidUsingVolatile: read by threads other than the refresh thread
+  private volatile ReloadReason lastReloadReason = ReloadReason.NEVER_LOADED;
 
   /** Constructs a {@link Resolver} which should only read the properties file once. */
   public PropertyFileResolver(Path location) {
@@ -44,8 +60,19 @@ public class PropertyFileResolver implements Resolver {
   }
 
   public PropertyFileResolver(Path location, boolean isReloadable) {
+    this(location, isReloadable, false);
+  }
+
+  /**
+   * Constructs a {@link Resolver} which reads properties from the specified file.
+   *
+   * @param verifyContentHash if true, files whose metadata has changed are hashed and only parsed
+   *     if their contents have changed
+   */
+  public PropertyFileResolver(Path location, boolean isReloadable, boolean verifyContentHash) {
     this.location = location;
     this.isReloadable = isReloadable;
+    this.verifyContentHash = verifyContentHash;
   }
 
   @Override
@@ -53,6 +80,11 @@ public class PropertyFileResolver implements Resolver {
     return isReloadable;
   }
 
+  @Override
+  public Set<Path> watchedPaths() {
+    return Set.of(location);
+  }
+
   @Override
   @Nullable
   public String get(String key) {
@@ -61,23 +93,72 @@ public class PropertyFileResolver implements Resolver {
 
   @Override
   public Set<String> reload() {
-    if (!Files.exists(location)) {
-      if (log.isLoggable(FINE)) {
-        log.fine(
-            () ->
-                format("Skipping %s; file not found at %s", getClass().getSimpleName(), location));
-      }
-      return Set.of();
-    }
+    ReloadReason reason;
+    Set<String> updatedKeys = Set.of();
 
-    try (InputStream stream = Files.newInputStream(location)) {
-      return ResolverUtils.mergeMapsInPlace(store, ResolverUtils.loadPropertiesFromStream(stream));
+    try {
+      FileState state = FileState.read(location);
+      if (state == null) {
+        reason = ReloadReason.NOT_FOUND;
+      } else if (state.isUnchangedSince(fileState)) {
+        reason = ReloadReason.UNCHANGED;
+      } else if (verifyContentHash) {
+        // the contents are read after the metadata, ensuring that concurrent writes are detected
+        // by the next reload
+        byte[] content = Files.readAllBytes(location);
+        long hash = hash(content);
+        if (fileState != null && hash == contentHash) {
+          reason = ReloadReason.CONTENT_UNCHANGED;
+        } else {
+          reason = fileState == null ? ReloadReason.FIRST_LOAD : ReloadReason.MODIFIED;
+          updatedKeys = merge(new ByteArrayInputStream(content));
+        }
+
+        // only remember the file's state once it was successfully processed
+        fileState = state;
+        contentHash = hash;
+      } else {
+        reason = fileState == null ? ReloadReason.FIRST_LOAD : ReloadReason.MODIFIED;
+        updatedKeys = merge(Files.newInputStream(location));
+        fileState = state;
+      }
 
     } catch (IOException | IllegalArgumentException e) {
+      reason = ReloadReason.FAILED;
       log.log(SEVERE, e, () -> format("Could not read configuration from %s", location));
     }
 
-    return Set.of();
+    lastReloadReason = reason;
+    if (log.isLoggable(FINE)) {
+      ReloadReason finalReason = reason;
+      log.fine(() -> format("Reloaded %s (%s)", location, finalReason));
+    }
+    return updatedKeys;
+  }
+
+  /**
+   * Parses the specified stream and replaces the store with an immutable snapshot of its
+   * properties, which allows concurrent reads without locking.
+   */
+  private Set<String> merge(InputStream stream) throws IOException {
+    try (stream) {
+      Map<String, String> updated = Map.copyOf(ResolverUtils.loadPropertiesFromStream(stream));
+      Set<String> changedKeys = ResolverUtils.changedKeys(store, updated);
+      store = updated;
+      return changedKeys;
+    }
+  }
+
+  /** Explains why the last call to {@link #reload()} skipped or read the file. */
+  public ReloadReason lastReloadReason() {
+    return lastReloadReason;
+  }
+
+  /** Computes a hash of the file's contents. */
+  private static long hash(byte[] content) {
+    Checksum checksum = new CRC32C();
+    checksum.update(content, 0, content.length);
+    return checksum.getValue();
   }
 
   @Override
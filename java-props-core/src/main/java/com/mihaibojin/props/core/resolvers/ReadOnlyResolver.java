@@ -18,6 +18,10 @@ package com.mihaibojin.props.core.resolvers;
 
 import java.util.Set;
 
+/**
+ * Base class for resolvers which read each value from its source, when it is requested (e.g.,
+ * system properties), and therefore cannot report which keys have changed.
+ */
 public abstract class ReadOnlyResolver implements Resolver {
 
   @Override
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mihaibojin.props.core.resolvers;
+
+/** Explains why a {@link Resolver} skipped or performed its last reload. */
+public enum ReloadReason {
+  /** The resolver has not been reloaded yet. */
+  NEVER_LOADED,
+
+  /** The source was read for the first time. */
+  FIRST_LOAD,
+
+  /** The source's metadata changed, so it was read again. */
+  MODIFIED,
+
+  /** The source's metadata did not change, so it was not read. */
+  UNCHANGED,
+
+  /** The source's metadata changed, but its contents did not, so it was not parsed. */
+  CONTENT_UNCHANGED,
+
+  /** The source could not be found. */
+  NOT_FOUND,
+
+  /** The source could not be read. */
+  FAILED
+}
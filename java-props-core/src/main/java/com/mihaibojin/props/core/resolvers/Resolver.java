@@ -17,6 +17,8 @@
 package com.mihaibojin.props.core.resolvers;
 
 import com.mihaibojin.props.core.annotations.Nullable;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Set;
 
 public interface Resolver {
@@ -44,4 +46,39 @@ public interface Resolver {
   default boolean isReloadable() {
     return true;
   }
+
+  /**
+   * Returns how often this resolver should be reloaded, or <code>null</code> to use the registry's
+   * {@link com.mihaibojin.props.core.Props.Factory#refreshInterval(Duration)}.
+   *
+   * <p>Resolvers backed by sources which rarely change can be polled less often than others.
+   */
+  @Nullable
+  default Duration refreshInterval() {
+    return null;
+  }
+
+  /**
+   * Returns the maximum random delay added to each {@link #refreshInterval()}, or <code>null
+   * </code> to use the registry's {@link
+   * com.mihaibojin.props.core.Props.Factory#refreshJitter(Duration)}.
+   *
+   * <p>Jitter prevents many processes, which were started at the same time, from reloading a shared
+   * source (e.g., a file on a network drive) in lockstep.
+   */
+  @Nullable
+  default Duration refreshJitter() {
+    return null;
+  }
+
+  /**
+   * Returns the files or directories which back this resolver's properties.
+   *
+   * <p>If {@link com.mihaibojin.props.core.Props.Factory#watchFiles(boolean)} is enabled, the
+   * resolver is reloaded as soon as any of these paths change, instead of waiting for the next
+   * periodic refresh. Directories are watched for changes to any of their (direct) entries.
+   */
+  default Set<Path> watchedPaths() {
+    return Set.of();
+  }
 }
@@ -114,6 +114,32 @@ public class ResolverUtils {
     return toDel;
   }
 
+  /**
+   * Compares the <code>previous</code> and <code>updated</code> maps, without modifying them.
+   *
+   * @return the {@link Set} of new, updated, and deleted keys
+   */
+  public static Set<String> changedKeys(
+      Map<String, String> previous, Map<String, String> updated) {
+    var changed = new HashSet<String>();
+
+    // keys which were deleted
+    for (String key : previous.keySet()) {
+      if (!updated.containsKey(key)) {
+        changed.add(key);
+      }
+    }
+
+    // keys which were added or updated
+    for (Entry<String, String> newVal : updated.entrySet()) {
+      if (!Objects.equals(previous.get(newVal.getKey()), newVal.getValue())) {
+        changed.add(newVal.getKey());
+      }
+    }
+
+    return changed;
+  }
+
   /**
    * Reads all lines from an {@link InputStream} that specifies multiple resolver configurations.
    *
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import com.mihaibojin.props.core.annotations.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Loads system properties into an immutable snapshot, which is refreshed on every reload.
+ *
+ * <p>Unlike {@link SystemPropertyResolver}, reads never lock the system properties table, and
+ * properties set at runtime (e.g., via {@link System#setProperty(String, String)}) are observed by
+ * bound props once the resolver is reloaded.
+ *
+ * <p>Since {@link Properties} does not expose a modification counter (and its hash code is also
+ * computed over all entries), there is no cheap way to detect that nothing has changed: every
+ * reload walks all the system properties, and its cost is proportional to their number. Reloads
+ * compare them against the current snapshot in place, which only avoids allocating (and diffing) a
+ * new snapshot when none of them have changed.
+ */
+public class SystemPropertySnapshotResolver implements Resolver {
+
+  //  deepcode ignore AvoidUsingVolatile: immutable snapshot, replaced by the refresh thread
+  private volatile Map<String, String> store = Map.of();
+  private final boolean isReloadable;
+  // the number of entries (including non-string ones) last loaded; only accessed while reloading
+  private int lastSize = -1;
+
+  /** Constructs a resolver which reloads system properties on every refresh. */
+  public SystemPropertySnapshotResolver() {
+    this(true);
+  }
+
+  public SystemPropertySnapshotResolver(boolean isReloadable) {
+    this.isReloadable = isReloadable;
+  }
+
+  @Override
+  @Nullable
+  public String get(String key) {
+    return store.get(key);
+  }
+
+  @Override
+  public synchronized Set<String> reload() {
+    Properties properties = System.getProperties();
+    int size = properties.size();
+    if (size == lastSize && matchesStore(properties)) {
+      // nothing has changed since the last reload
+      return Set.of();
+    }
+
+    Map<String, String> updated = new HashMap<>(size);
+    properties.forEach(
+        (key, value) -> {
+          if (key instanceof String && value instanceof String) {
+            updated.put((String) key, (String) value);
+          }
+        });
+
+    Set<String> changedKeys = ResolverUtils.changedKeys(store, updated);
+    store = Map.copyOf(updated);
+    lastSize = size;
+    return changedKeys;
+  }
+
+  /** Returns true if all the string properties are equal to the values in the current snapshot. */
+  private boolean matchesStore(Properties properties) {
+    Map<String, String> store = this.store;
+    int[] matched = {0};
+    boolean[] isChanged = {false};
+    properties.forEach(
+        (key, value) -> {
+          if (isChanged[0] || !(key instanceof String) || !(value instanceof String)) {
+            return;
+          }
+          if (value.equals(store.get(key))) {
+            matched[0]++;
+          } else {
+            isChanged[0] = true;
+          }
+        });
+
+    // properties which were removed (or replaced by non-string values) are not matched
+    return !isChanged[0] && matched[0] == store.size();
+  }
+
+  @Override
+  public boolean isReloadable() {
+    return isReloadable;
+  }
+
+  /** Returns an id distinct from {@link SystemPropertyResolver}'s, so both can be registered. */
+  @Override
+  public String id() {
+    return "SYSTEM_SNAPSHOT";
+  }
+}
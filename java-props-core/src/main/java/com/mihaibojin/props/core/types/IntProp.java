@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.types;
+
+import static java.util.Objects.isNull;
+
+import com.mihaibojin.props.core.AbstractProp;
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.converters.IntegerConverter;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * {@link com.mihaibojin.props.core.Prop} which additionally stores its value as a primitive
+ * <code>int</code>, allowing it to be read without unboxing via {@link #getAsInt()}.
+ */
+public class IntProp extends AbstractProp<Integer> implements IntegerConverter, IntSupplier {
+
+  private final int defaultValue;
+  //  deepcode ignore AvoidUsingVolatile: support high-concurrency scenarios
+  private volatile int value;
+
+  /** Constructs a prop with the specified default value. */
+  public IntProp(
+      String key,
+      int defaultValue,
+      @Nullable String description,
+      boolean isRequired,
+      boolean isSecret) {
+    super(key, defaultValue, description, isRequired, isSecret);
+    this.defaultValue = defaultValue;
+    this.value = defaultValue;
+  }
+
+  @Override
+  protected void afterSet(@Nullable Integer value) {
+    this.value = isNull(value) ? defaultValue : value;
+  }
+
+  /**
+   * Returns the prop's current value, or its default value if one is not set.
+   *
+   * <p>Unlike {@link #value()}, this method does not allocate and does not perform any
+   * validations.
+   */
+  @Override
+  public int getAsInt() {
+    return value;
+  }
+
+  /**
+   * Registers value and error consumers, which are called every time the prop is updated; the
+   * default value is passed if the prop's value was unset.
+   */
+  public void onUpdateAsInt(IntConsumer consumer, Consumer<Throwable> errConsumer) {
+    onUpdate(v -> consumer.accept(isNull(v) ? defaultValue : v), errConsumer);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.mihaibojin.props.core.converters.Cast;
+import com.mihaibojin.props.core.converters.Converter;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DecodedValueCacheTest {
+
+  @Test
+  void servesCachedValuesForTheSameRawString() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(10);
+    Converter<Integer> converter = Cast.asInteger();
+
+    // ACT
+    Integer first = cache.decode("key", converter, null, "1");
+    Integer second = cache.decode("key", converter, null, "1");
+    Integer updated = cache.decode("key", converter, null, "2");
+
+    // ASSERT
+    assertThat(first, equalTo(1));
+    assertThat(second, equalTo(1));
+    assertThat(updated, equalTo(2));
+    assertThat(cache.stats().hits(), equalTo(1L));
+    assertThat(cache.stats().misses(), equalTo(2L));
+  }
+
+  @Test
+  void evictsEntriesWhenFull() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(2);
+    Converter<Integer> converter = Cast.asInteger();
+
+    // ACT
+    cache.decode("key1", converter, null, "1");
+    cache.decode("key2", converter, null, "2");
+    cache.decode("key3", converter, null, "3");
+
+    // ASSERT
+    assertThat(cache.stats().size(), equalTo(2));
+    assertThat(cache.stats().evictions(), equalTo(1L));
+  }
+
+  @Test
+  void recentlyReadEntriesAreNotEvicted() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(2);
+    Converter<Integer> converter = Cast.asInteger();
+    cache.decode("hot", converter, null, "0");
+
+    // ACT
+    for (int i = 0; i < 100; i++) {
+      cache.decode("hot", converter, null, "0");
+      cache.decode("cold" + i, converter, null, String.valueOf(i));
+    }
+
+    // ASSERT
+    assertThat(cache.stats().hits(), equalTo(100L));
+    assertThat(cache.stats().evictions(), equalTo(99L));
+    assertThat(cache.stats().size(), equalTo(2));
+  }
+
+  @Test
+  void invalidatedEntriesAreReplacedWithoutEvictions() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(2);
+    Converter<Integer> converter = Cast.asInteger();
+    cache.decode("key1", converter, null, "1");
+    cache.decode("key2", converter, null, "2");
+
+    // ACT
+    cache.invalidate(Set.of("key1"));
+    cache.decode("key2", converter, null, "22");
+    cache.decode("key3", converter, null, "3");
+
+    // ASSERT
+    assertThat(cache.stats().evictions(), equalTo(0L));
+    assertThat(cache.stats().size(), equalTo(2));
+  }
+
+  @Test
+  void invalidateChangedKeys() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(10);
+    Converter<Integer> converter = Cast.asInteger();
+    cache.decode("key1", converter, null, "1");
+    cache.decode("key1", converter, "resolver", "1");
+    cache.decode("key2", converter, null, "2");
+
+    // ACT
+    cache.invalidate(Set.of("key1"));
+
+    // ASSERT
+    assertThat(cache.stats().size(), equalTo(1));
+  }
+
+  @Test
+  void mutableValuesAreNotShared() {
+    // ARRANGE
+    DecodedValueCache cache = new DecodedValueCache(10);
+    Converter<Date> dates = Cast.asDate();
+    Converter<List<Long>> longs = Cast.asListOfLong();
+    Date date = cache.decode("date", dates, null, "2020-01-01T00:00:00Z");
+    List<Long> list = cache.decode("list", longs, null, "1,2");
+
+    // ACT
+    date.setTime(0);
+    list.add(3L);
+
+    // ASSERT
+    assertThat(cache.decode("date", dates, null, "2020-01-01T00:00:00Z"), not(sameInstance(date)));
+    assertThat(cache.decode("list", longs, null, "1,2"), equalTo(List.of(1L, 2L)));
+    assertThat(cache.stats().size(), equalTo(0));
+  }
+}
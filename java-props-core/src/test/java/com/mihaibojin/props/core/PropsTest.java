@@ -19,16 +19,36 @@ package com.mihaibojin.props.core;
 import static com.mihaibojin.props.core.resolvers.ResolverUtils.readResolverConfig;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
 
 import com.mihaibojin.props.core.converters.Cast;
 import com.mihaibojin.props.core.converters.Converter;
 import com.mihaibojin.props.core.converters.DurationConverter;
 import com.mihaibojin.props.core.resolvers.ClasspathPropertyFileResolver;
 import com.mihaibojin.props.core.resolvers.EnvResolver;
+import com.mihaibojin.props.core.resolvers.InMemoryResolver;
+import com.mihaibojin.props.core.resolvers.PropertyFileResolver;
 import com.mihaibojin.props.core.resolvers.SystemPropertyResolver;
 import com.mihaibojin.props.core.types.AbstractStringProp;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class PropsTest {
 
@@ -86,6 +106,596 @@ public class PropsTest {
     assertThat(aValue, equalTo(1));
   }
 
+  @Test
+  public void adHocReadsObserveUpdatedValues() {
+    // ARRANGE
+    InMemoryResolver resolver = new InMemoryResolver();
+    resolver.set("prop.id", "3");
+
+    Props props =
+        Props.factory()
+            .withResolver(resolver)
+            .withResolver(new ClasspathPropertyFileResolver("/propfiles/config1.properties"))
+            .refreshInterval(Duration.ofMillis(50))
+            .build();
+
+    // ACT
+    Integer initialValue = props.prop("prop.id", Cast.asInteger()).value();
+    Integer missingValue = props.prop("prop.missing", Cast.asInteger()).value();
+    resolver.set("prop.missing", "4");
+
+    // ASSERT
+    assertThat(initialValue, equalTo(1));
+    assertThat(missingValue, nullValue());
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!Objects.equals(props.prop("prop.missing", Cast.asInteger()).value(), 4)) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  public void adHocReadsObserveSystemPropertyChanges() {
+    // ARRANGE
+    String key = "props.test.live.system.property";
+    Props props =
+        Props.factory()
+            .withResolver(new ClasspathPropertyFileResolver("/propfiles/config1.properties"))
+            .withResolver(new SystemPropertyResolver())
+            .build();
+
+    try {
+      // ACT
+      Integer missingValue = props.prop(key, Cast.asInteger()).value();
+      System.setProperty(key, "1");
+      Integer initialValue = props.prop(key, Cast.asInteger()).value();
+      System.setProperty(key, "2");
+      Integer updatedValue = props.prop(key, Cast.asInteger()).value();
+
+      // ASSERT
+      assertThat(missingValue, nullValue());
+      assertThat(initialValue, equalTo(1));
+      assertThat(updatedValue, equalTo(2));
+    } finally {
+      System.clearProperty(key);
+    }
+  }
+
+  @Test
+  public void watchedFilesAreReloadedOnChange(@TempDir Path tempDir) throws Exception {
+    // ARRANGE
+    Path file = tempDir.resolve("config.properties");
+    Files.writeString(file, "prop.id=1");
+
+    Props props =
+        Props.factory()
+            .withResolver(new PropertyFileResolver(file, true))
+            .refreshInterval(Duration.ofHours(1))
+            .watchFiles(true)
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).build();
+
+    // ACT
+    Files.writeString(file, "prop.id=22");
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(10),
+        () -> {
+          while (!Objects.equals(prop.value(), 22)) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  public void steadyWritesDoNotPostponeReloads(@TempDir Path tempDir) throws Exception {
+    // ARRANGE
+    Path file = tempDir.resolve("config.properties");
+    Files.writeString(file, "prop.id=1");
+    Path other = tempDir.resolve("other.properties");
+
+    Props props =
+        Props.factory()
+            .withResolver(new PropertyFileResolver(file, true))
+            .refreshInterval(Duration.ofHours(1))
+            .watchFiles(true)
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).build();
+
+    // ACT
+    Files.writeString(file, "prop.id=2");
+
+    // keep generating events in the same directory, faster than the coalescing window
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    int writes = 0;
+    while (!Objects.equals(prop.value(), 2) && System.nanoTime() < deadline) {
+      Files.writeString(other, "write=" + writes++);
+      Thread.sleep(5);
+    }
+
+    // ASSERT
+    assertThat(prop.value(), equalTo(2));
+  }
+
+  @Test
+  public void changesMadeDuringAReloadAreNotLost(@TempDir Path tempDir) throws Exception {
+    // ARRANGE
+    Path file = tempDir.resolve("config.properties");
+    Files.writeString(file, "prop.id=1");
+
+    // the first reload after the initial load blocks, after reading the file
+    AtomicBoolean block = new AtomicBoolean();
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PropertyFileResolver resolver =
+        new PropertyFileResolver(file, true) {
+          @Override
+          public Set<String> reload() {
+            Set<String> keys = super.reload();
+            if (block.getAndSet(false)) {
+              blocked.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+            return keys;
+          }
+        };
+
+    Props props =
+        Props.factory()
+            .withResolver(resolver)
+            .refreshInterval(Duration.ofHours(1))
+            .reloadTimeout(Duration.ofMillis(20))
+            .watchFiles(true)
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).build();
+
+    // ACT
+    block.set(true);
+    Files.writeString(file, "prop.id=2");
+    blocked.await(5, TimeUnit.SECONDS);
+
+    // the file changes again, while the previous change is still being reloaded
+    Files.writeString(file, "prop.id=3");
+    Thread.sleep(200);
+    release.countDown();
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(10),
+        () -> {
+          while (!Objects.equals(prop.value(), 3)) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  public void atomicallySwappedFilesAreReloaded(@TempDir Path tempDir) throws Exception {
+    // ARRANGE
+
+    // mimic the layout of a Kubernetes ConfigMap volume
+    Path first = Files.createDirectory(tempDir.resolve("..v1"));
+    Files.writeString(first.resolve("config.properties"), "prop.id=1");
+    Path second = Files.createDirectory(tempDir.resolve("..v2"));
+    Files.writeString(second.resolve("config.properties"), "prop.id=2");
+    Files.createSymbolicLink(tempDir.resolve("..data"), first.getFileName());
+    Path file = tempDir.resolve("config.properties");
+    Files.createSymbolicLink(file, Path.of("..data", "config.properties"));
+
+    Props props =
+        Props.factory()
+            .withResolver(new PropertyFileResolver(file, true))
+            .refreshInterval(Duration.ofHours(1))
+            .watchFiles(true)
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).build();
+
+    // ACT
+    Path tmp = tempDir.resolve("..data_tmp");
+    Files.createSymbolicLink(tmp, second.getFileName());
+    Files.move(tmp, tempDir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(10),
+        () -> {
+          while (!Objects.equals(prop.value(), 2)) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  public void versionsAreIncrementedOnUpdate() {
+    // ARRANGE
+    InMemoryResolver resolver = new InMemoryResolver();
+    resolver.set("prop.a", "1");
+
+    Props props =
+        Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+    Prop<Integer> prop = props.prop("prop.a", Cast.asInteger()).build();
+    long version = prop.version();
+    long generation = props.generation();
+
+    // ACT
+    resolver.set("prop.a", "2");
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (prop.version() == version) {
+            Thread.sleep(50);
+          }
+        });
+    assertThat(prop.value(), equalTo(2));
+    assertThat(prop.version(), equalTo(version + 1));
+    assertThat(props.generation(), greaterThan(generation));
+  }
+
+  @Test
+  public void onChangesDeliversAllChangesInOneBatch() {
+    // ARRANGE
+    AtomicResolver resolver = new AtomicResolver();
+    resolver.setAll(Map.of("prop.a", "1", "prop.b", "2"));
+
+    Props props =
+        Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+    props.prop("prop.a", Cast.asInteger()).build();
+    props.prop("prop.b", Cast.asInteger()).build();
+
+    List<ChangeBatch> batches = new CopyOnWriteArrayList<>();
+    props.onChanges(batches::add);
+
+    // ACT
+    // both keys must be reported by the same reload
+    resolver.setAll(Map.of("prop.a", "10", "prop.b", "20"));
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (batches.isEmpty()) {
+            Thread.sleep(50);
+          }
+        });
+    ChangeBatch batch = batches.get(0);
+    assertThat(batch.size(), equalTo(2));
+    assertThat(batch.get("prop.a").oldValue(), equalTo(1));
+    assertThat(batch.get("prop.a").newValue(), equalTo(10));
+    assertThat(batch.get("prop.b").resolverId(), equalTo(resolver.id()));
+  }
+
+  @Test
+  public void readersDoNotPreventChangesFromBeingReported() throws InterruptedException {
+    // ARRANGE
+    AtomicResolver resolver = new AtomicResolver();
+    resolver.setAll(Map.of("prop.a", "1"));
+
+    Props props =
+        Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+    props.prop("prop.a", Cast.asInteger()).build();
+
+    List<ChangeBatch> batches = new CopyOnWriteArrayList<>();
+    props.onChanges(batches::add);
+
+    // ACT
+    resolver.setAll(Map.of("prop.a", "10"));
+
+    // keep reading the prop, before and after the refresh thread observes the change
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (batches.isEmpty() && System.nanoTime() < deadline) {
+      props.retrieveProp("prop.a");
+      Thread.sleep(1);
+    }
+
+    // ASSERT
+    assertThat(batches.size(), equalTo(1));
+    assertThat(batches.get(0).get("prop.a").oldValue(), equalTo(1));
+    assertThat(batches.get(0).get("prop.a").newValue(), equalTo(10));
+  }
+
+  @Test
+  public void propsWhichFailToUpdateDoNotAffectOthers() {
+    // ARRANGE
+    AtomicResolver resolver = new AtomicResolver();
+    resolver.setAll(Map.of("prop.a", "1", "prop.b", "2"));
+
+    Props props =
+        Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+    // unlike Cast.asInteger(), this converter throws if the value cannot be decoded
+    Prop<Integer> propA = props.prop("prop.a", Integer::valueOf).build();
+    Prop<Integer> propB = props.prop("prop.b", Cast.asInteger()).build();
+
+    List<ChangeBatch> batches = new CopyOnWriteArrayList<>();
+    props.onChanges(batches::add);
+
+    // ACT
+    resolver.setAll(Map.of("prop.a", "not a number", "prop.b", "20"));
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (batches.isEmpty()) {
+            Thread.sleep(50);
+          }
+        });
+    resolver.setAll(Map.of("prop.a", "10"));
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (batches.size() < 2) {
+            Thread.sleep(50);
+          }
+        });
+    assertThat(batches.get(0).size(), equalTo(1));
+    assertThat(batches.get(0).get("prop.b").newValue(), equalTo(20));
+    assertThat(batches.get(1).get("prop.a").newValue(), equalTo(10));
+    assertThat(propA.value(), equalTo(10));
+    assertThat(propB.value(), equalTo(20));
+  }
+
+  @Test
+  public void valuesWhichFailToDecodeAreRetried() {
+    // ARRANGE
+    InMemoryResolver resolver = new InMemoryResolver();
+    resolver.set("prop.id", "1");
+    Props props =
+        Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+    // fails to decode the value once, simulating a transient failure
+    AtomicBoolean isFailing = new AtomicBoolean();
+    AtomicInteger failures = new AtomicInteger();
+    Prop<Integer> prop =
+        props
+            .prop(
+                "prop.id",
+                value -> {
+                  if (isFailing.get()) {
+                    failures.incrementAndGet();
+                    throw new IllegalStateException("Cannot decode " + value);
+                  }
+                  return Integer.valueOf(value);
+                })
+            .build();
+
+    // ACT
+    isFailing.set(true);
+    resolver.set("prop.id", "2");
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (failures.get() == 0) {
+            Thread.sleep(10);
+          }
+        });
+    isFailing.set(false);
+    resolver.set("prop.id", "2");
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!Objects.equals(prop.value(), 2)) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  public void slowResolversDoNotDelayOtherResolvers() throws Exception {
+    // ARRANGE
+    CountDownLatch release = new CountDownLatch(1);
+    InMemoryResolver slow =
+        new InMemoryResolver() {
+          @Override
+          public Set<String> reload() {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return super.reload();
+          }
+
+          @Override
+          public String id() {
+            return "SLOW";
+          }
+        };
+    InMemoryResolver fast = new InMemoryResolver();
+    fast.set("prop.fast", "1");
+    slow.set("prop.slow", "1");
+
+    Props props =
+        Props.factory()
+            .withResolver(slow)
+            .withResolver(fast)
+            .refreshInterval(Duration.ofMillis(50))
+            .reloadTimeout(Duration.ofMillis(20))
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+    Prop<Integer> fastProp = props.prop("prop.fast", Cast.asInteger()).build();
+    Prop<Integer> slowProp = props.prop("prop.slow", Cast.asInteger()).build();
+
+    // ACT
+    slow.set("prop.slow", "2");
+    fast.set("prop.fast", "2");
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!Objects.equals(fastProp.value(), 2)) {
+            Thread.sleep(50);
+          }
+        });
+    Integer slowValue = slowProp.value();
+    release.countDown();
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!Objects.equals(slowProp.value(), 2)) {
+            Thread.sleep(50);
+          }
+        });
+    assertThat(slowValue, equalTo(1));
+    assertThat(props.reloadTimings().get("SLOW").timeouts(), greaterThan(0L));
+    assertThat(props.reloadTimings().get(fast.id()).count(), greaterThan(0L));
+  }
+
+  @Test
+  public void resolversAreRefreshedOnTheirOwnSchedule() throws Exception {
+    // ARRANGE
+    AtomicInteger slowReloads = new AtomicInteger();
+    AtomicInteger fastReloads = new AtomicInteger();
+    InMemoryResolver slow =
+        new InMemoryResolver() {
+          @Override
+          public Set<String> reload() {
+            slowReloads.incrementAndGet();
+            return super.reload();
+          }
+
+          @Override
+          public Duration refreshInterval() {
+            return Duration.ofHours(1);
+          }
+
+          @Override
+          public String id() {
+            return "SLOW";
+          }
+        };
+    InMemoryResolver fast =
+        new InMemoryResolver() {
+          @Override
+          public Set<String> reload() {
+            fastReloads.incrementAndGet();
+            return super.reload();
+          }
+        };
+
+    Props props =
+        Props.factory()
+            .withResolver(slow)
+            .withResolver(fast)
+            .refreshInterval(Duration.ofMillis(20))
+            .refreshJitter(Duration.ofMillis(10))
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+
+    // ACT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (fastReloads.get() < 5) {
+            Thread.sleep(20);
+          }
+        });
+
+    // ASSERT
+    assertThat(props.isReady(), equalTo(true));
+    // only the initial load
+    assertThat(slowReloads.get(), lessThan(2));
+  }
+
+  @Test
+  public void buildAsyncCompletesOnceLoaded() throws Exception {
+    // ARRANGE
+    Props props =
+        Props.factory()
+            .withResolver(new ClasspathPropertyFileResolver("/propfiles/config1.properties"))
+            .readinessPolicy(ReadinessPolicy.FAIL_FAST)
+            .buildAsync()
+            .get(5, TimeUnit.SECONDS);
+
+    // ACT
+    Integer aValue = props.prop("prop.id", Cast.asInteger()).build().value();
+
+    // ASSERT
+    assertThat(props.isReady(), equalTo(true));
+    assertThat(aValue, equalTo(1));
+  }
+
+  @Test
+  public void failFastPropsCanBeBoundOnceReady() {
+    // ARRANGE
+    BlockingResolver resolver = new BlockingResolver();
+    resolver.set("prop.id", "1");
+    Props props =
+        Props.factory().withResolver(resolver).readinessPolicy(ReadinessPolicy.FAIL_FAST).build();
+
+    // ACT
+    Assertions.assertThrows(
+        IllegalStateException.class, () -> props.prop("prop.id", Cast.asInteger()).build());
+    Assertions.assertThrows(IllegalStateException.class, () -> props.intProp("prop.id", 0));
+    resolver.release.countDown();
+    awaitReady(props);
+
+    // ASSERT
+    assertThat(props.prop("prop.id", Cast.asInteger()).build().value(), equalTo(1));
+  }
+
+  @Test
+  public void serveDefaultsUntilReady() {
+    // ARRANGE
+    BlockingResolver resolver = new BlockingResolver();
+    resolver.set("prop.id", "1");
+    Props props =
+        Props.factory()
+            .withResolver(resolver)
+            .readinessPolicy(ReadinessPolicy.SERVE_DEFAULTS)
+            .build();
+
+    // ACT
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).defaultValue(0).build();
+    Integer beforeReady = prop.value();
+    resolver.release.countDown();
+    awaitReady(props);
+
+    // ASSERT
+    assertThat(beforeReady, equalTo(0));
+    assertThat(prop.value(), equalTo(1));
+  }
+
+  @Test
+  public void blockWaitsForTheInitialLoadUntilTheDeadline() {
+    // ARRANGE
+    BlockingResolver resolver = new BlockingResolver();
+    resolver.set("prop.id", "1");
+    Props props =
+        Props.factory()
+            .withResolver(resolver)
+            .readinessPolicy(ReadinessPolicy.BLOCK)
+            .initialLoadTimeout(Duration.ofMillis(100))
+            .build();
+
+    // ACT
+    long start = System.nanoTime();
+    Prop<Integer> prop = props.prop("prop.id", Cast.asInteger()).build();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    boolean wasReady = props.isReady();
+    resolver.release.countDown();
+
+    // ASSERT
+    assertThat(wasReady, equalTo(false));
+    assertThat(elapsedMillis, greaterThanOrEqualTo(100L));
+    // values are resolved from whatever was loaded before the deadline
+    assertThat(prop.value(), equalTo(1));
+  }
+
   @Test
   public void loadResolverConfig() {
     // ARRANGE
@@ -175,6 +785,44 @@ public class PropsTest {
     assertThat(allKeys, equalTo("My name is Mihai and my age is 999"));
   }
 
+  /** Sets multiple values atomically, ensuring they are all reported by the same reload. */
+  private static class AtomicResolver extends InMemoryResolver {
+    synchronized void setAll(Map<String, String> values) {
+      values.forEach(this::set);
+    }
+
+    @Override
+    public synchronized Set<String> reload() {
+      return super.reload();
+    }
+  }
+
+  /** Waits until the initial load of the specified registry completes. */
+  private static void awaitReady(Props props) {
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!props.isReady()) {
+            Thread.sleep(10);
+          }
+        });
+  }
+
+  /** Blocks reloads (including the initial load) until released. */
+  private static class BlockingResolver extends InMemoryResolver {
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public Set<String> reload() {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return super.reload();
+    }
+  }
+
   /**
    * Defines a custom decoder for the Duration, returning it as a String.
    *
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.mihaibojin.props.core.resolvers.InMemoryResolver;
+import com.mihaibojin.props.core.resolvers.Resolver;
+import com.mihaibojin.props.core.resolvers.SystemPropertyResolver;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ResolutionTableTest {
+
+  @Test
+  void changedKeysAreResolvedAgainOnceInvalidated() {
+    // ARRANGE
+    InMemoryResolver high = new InMemoryResolver();
+    InMemoryResolver low = new InMemoryResolver();
+    low.set("key", "low");
+    ResolutionTable table = new ResolutionTable(prioritized(high, low), 10);
+    String before = table.get("key").value;
+
+    // ACT
+    high.set("key", "high");
+    String stale = table.get("key").value;
+    table.invalidate(Set.of("key"));
+
+    // ASSERT
+    assertThat(before, equalTo("low"));
+    assertThat("the memoized route is used until invalidated", stale, equalTo("low"));
+    assertThat(table.get("key").value, equalTo("high"));
+    assertThat(table.get("key").resolverId, equalTo("high"));
+  }
+
+  @Test
+  void liveResolversAreAlwaysConsulted() {
+    // ARRANGE
+    String key = "props.resolution.table.test";
+    InMemoryResolver low = new InMemoryResolver();
+    low.set(key, "low");
+    ResolutionTable table = new ResolutionTable(prioritized(new SystemPropertyResolver(), low), 10);
+    String before = table.get(key).value;
+
+    try {
+      // ACT
+      System.setProperty(key, "system");
+      String overridden = table.get(key).value;
+      System.setProperty(key, "updated");
+      String updated = table.get(key).value;
+
+      // ASSERT
+      assertThat(before, equalTo("low"));
+      assertThat(overridden, equalTo("system"));
+      assertThat(updated, equalTo("updated"));
+    } finally {
+      System.clearProperty(key);
+    }
+
+    assertThat(table.get(key).value, equalTo("low"));
+  }
+
+  private static Map<String, Resolver> prioritized(Resolver high, Resolver low) {
+    Map<String, Resolver> resolvers = new LinkedHashMap<>();
+    resolvers.put("high", high);
+    resolvers.put("low", low);
+    return resolvers;
+  }
+}
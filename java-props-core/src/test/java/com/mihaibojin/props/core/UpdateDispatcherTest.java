@@ -0,0 +1,258 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.mihaibojin.props.core;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.mihaibojin.props.core.types.AbstractStringProp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class UpdateDispatcherTest {
+
+  @Test
+  void slowSubscribersDoNotBlockPublishers() throws Exception {
+    // ARRANGE
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> received = new CopyOnWriteArrayList<>();
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(1, 600)) {
+      AbstractProp<String> prop = prop("key", dispatcher);
+      prop.onUpdate(awaiting(release, received), e -> {});
+
+      // ACT
+      // more updates than fit in the ring buffer, which spill over to the overflow queue
+      List<String> published = new ArrayList<>();
+      CompletableFuture.runAsync(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  prop.setValue("value" + i);
+                  published.add("value" + i);
+                }
+              })
+          .get(5, SECONDS);
+      release.countDown();
+
+      // ASSERT
+      awaitSize(received, published.size());
+      assertThat("Updates are delivered in order", received, equalTo(published));
+    }
+  }
+
+  @Test
+  void updatesAreDroppedOnceTheBuffersAreFull() throws Exception {
+    // ARRANGE
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> received = new CopyOnWriteArrayList<>();
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(1, 8)) {
+      AbstractProp<String> prop = prop("key", dispatcher);
+      prop.onUpdate(awaiting(release, received), e -> {});
+      SubscriptionMetrics metrics = prop.subscriptionMetrics().get(0);
+
+      // ACT
+      CompletableFuture.runAsync(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  prop.setValue(String.valueOf(i));
+                }
+              })
+          .get(5, SECONDS);
+      int queuedWhileBlocked = metrics.queued();
+      release.countDown();
+      long deadline = System.nanoTime() + SECONDS.toNanos(5);
+      while (metrics.delivered() + metrics.dropped() < 1000 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+
+      // ASSERT
+      // at most the ring buffer and the overflow queue are filled
+      assertThat(queuedWhileBlocked <= 16, equalTo(true));
+      assertThat(metrics.delivered() + metrics.dropped(), equalTo(1000L));
+      assertThat(metrics.queued(), equalTo(0));
+      assertThat((long) received.size(), equalTo(metrics.delivered()));
+      for (int i = 1; i < received.size(); i++) {
+        assertThat(
+            "Updates which are not dropped are delivered in order",
+            Integer.parseInt(received.get(i)) > Integer.parseInt(received.get(i - 1)),
+            equalTo(true));
+      }
+    }
+  }
+
+  @Test
+  void errorsThrownBySubscribersDoNotStopDeliveries() throws Exception {
+    // ARRANGE
+    List<String> received = new CopyOnWriteArrayList<>();
+    List<String> latest = new CopyOnWriteArrayList<>();
+    List<Throwable> errors = new CopyOnWriteArrayList<>();
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(1, 4)) {
+      AbstractProp<String> failing = prop("failing", dispatcher);
+      failing.onUpdate(
+          value -> {
+            throw new AssertionError(value);
+          },
+          errors::add);
+      failing.onUpdate(
+          value -> {
+            latest.add(value);
+            throw new StackOverflowError();
+          },
+          e -> {
+            throw new AssertionError("the error consumer failed too");
+          },
+          DeliveryMode.LATEST_VALUE);
+      AbstractProp<String> other = prop("other", dispatcher);
+      other.onUpdate(received::add, e -> {});
+
+      // ACT
+      failing.setValue("value1");
+      other.setValue("value1");
+      awaitSize(latest, 1);
+      failing.setValue("value2");
+      other.setValue("value2");
+
+      // ASSERT
+      awaitSize(received, 2);
+      awaitSize(latest, 2);
+      awaitSize(errors, 2);
+      assertThat(received, equalTo(List.of("value1", "value2")));
+      assertThat(latest, equalTo(List.of("value1", "value2")));
+      assertThat(errors.size(), equalTo(2));
+    }
+  }
+
+  @Test
+  void slowSubscribersDoNotDelayUpdatesOnOtherThreads() throws Exception {
+    // ARRANGE
+    CountDownLatch release = new CountDownLatch(1);
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(2, 4)) {
+      // "a" and "b" are delivered by different threads
+      AbstractProp<String> slow = prop("a", dispatcher);
+      slow.onUpdate(awaiting(release, new ArrayList<>()), e -> {});
+      AbstractProp<String> fast = prop("b", dispatcher);
+      CompletableFuture<String> delivered = new CompletableFuture<>();
+      fast.onUpdate(delivered::complete, delivered::completeExceptionally);
+
+      // ACT
+      slow.setValue("blocked");
+      fast.setValue("value");
+
+      // ASSERT
+      assertThat(delivered.get(5, SECONDS), equalTo("value"));
+      release.countDown();
+    }
+  }
+
+  @Test
+  void subscribersCanUpdatePropsFromTheDeliveryThread() throws Exception {
+    // ARRANGE
+    List<String> received = new CopyOnWriteArrayList<>();
+    List<String> buffered = new CopyOnWriteArrayList<>();
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(1, 8)) {
+      AbstractProp<String> target = prop("target", dispatcher);
+      target.onUpdate(received::add, e -> {});
+      target.onUpdate(buffered::add, e -> {}, OverflowPolicy.BLOCK, 1);
+      AbstractProp<String> source = prop("source", dispatcher);
+      source.onUpdate(
+          value -> {
+            for (int i = 0; i < 10; i++) {
+              target.setValue(value + i);
+            }
+          },
+          e -> {});
+
+      // ACT
+      source.setValue("value");
+
+      // ASSERT
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        expected.add("value" + i);
+      }
+      awaitSize(received, expected.size());
+      awaitSize(buffered, expected.size());
+      assertThat(received, equalTo(expected));
+      assertThat(buffered, equalTo(expected));
+    }
+  }
+
+  @Test
+  void metricsReportUpdatesQueuedByTheDispatcher() throws Exception {
+    // ARRANGE
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> received = new CopyOnWriteArrayList<>();
+    try (UpdateDispatcher dispatcher = new UpdateDispatcher(1, 4)) {
+      AbstractProp<String> prop = prop("key", dispatcher);
+      prop.onUpdate(awaiting(release, received), e -> {});
+      SubscriptionMetrics metrics = prop.subscriptionMetrics().get(0);
+
+      // ACT
+      for (int i = 0; i < 5; i++) {
+        prop.setValue("value" + i);
+      }
+      long deadline = System.nanoTime() + SECONDS.toNanos(5);
+      while (metrics.queued() > 4 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      int queuedWhileBlocked = metrics.queued();
+      release.countDown();
+      while (metrics.delivered() < 5 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+
+      // ASSERT
+      // the first update is being delivered, while the others are queued
+      assertThat(queuedWhileBlocked, equalTo(4));
+      assertThat(metrics.queued(), equalTo(0));
+      assertThat(metrics.delivered(), equalTo(5L));
+    }
+  }
+
+  /** Returns a consumer which waits for the latch to be released, before recording each value. */
+  private static Consumer<String> awaiting(CountDownLatch release, List<String> received) {
+    return value -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(value);
+    };
+  }
+
+  /** Waits (up to 5 seconds) until the list contains the specified number of elements. */
+  private static void awaitSize(List<?> list, int size) throws InterruptedException {
+    long deadline = System.nanoTime() + SECONDS.toNanos(5);
+    while (list.size() < size && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  /** Creates a prop whose updates are delivered by the specified dispatcher. */
+  private static AbstractProp<String> prop(String key, UpdateDispatcher dispatcher) {
+    AbstractProp<String> prop = new AbstractStringProp(key, null, null, false, false) {};
+    prop.dispatcher(dispatcher);
+    return prop;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.converters;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+
+class CastTest {
+
+  @Test
+  void returnsCanonicalInstances() {
+    // ASSERT
+    assertThat(Cast.asLong(), sameInstance(Cast.asLong()));
+    assertThat(
+        Cast.asNumericDuration(ChronoUnit.MILLIS),
+        sameInstance(Cast.asNumericDuration(ChronoUnit.MILLIS)));
+    assertThat(Cast.asPath(false), sameInstance(Cast.asPath(false)));
+  }
+
+  @Test
+  void lookupConvertersByType() {
+    // ASSERT
+    assertThat(Cast.forType(Long.class), sameInstance(Cast.asLong()));
+    assertThat(Cast.forType(long.class), sameInstance(Cast.asLong()));
+    assertThat(Cast.forType(ImmutableLongArray.class), sameInstance(Cast.asLongArray()));
+    assertThrows(IllegalArgumentException.class, () -> Cast.forType(Object.class));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.converters;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.Test;
+
+class ConverterUtilsTest {
+
+  @Test
+  void parseIntegers() {
+    // ASSERT
+    assertThat(ConverterUtils.safeParseInteger("42"), equalTo(42));
+    assertThat(ConverterUtils.safeParseInteger(" -42 "), equalTo(-42));
+    assertThat(ConverterUtils.safeParseInteger("+2147483647"), equalTo(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void rejectInvalidIntegers() {
+    // ASSERT
+    assertThat("Overflow", ConverterUtils.safeParseInteger("2147483648"), nullValue());
+    assertThat("Fractional part", ConverterUtils.safeParseInteger("1.5"), nullValue());
+    assertThat("Trailing garbage", ConverterUtils.safeParseInteger("12abc"), nullValue());
+    assertThat("Empty string", ConverterUtils.safeParseInteger(" "), nullValue());
+  }
+
+  @Test
+  void parseLongs() {
+    // ASSERT
+    assertThat(ConverterUtils.safeParseLong("9223372036854775807"), equalTo(Long.MAX_VALUE));
+    assertThat("Overflow", ConverterUtils.safeParseLong("9223372036854775808"), nullValue());
+    assertThat(ConverterUtils.parseLong("a,123,b", 2, 5), equalTo(123L));
+  }
+
+  @Test
+  void parseFloatingPointNumbers() {
+    // ASSERT
+    assertThat(ConverterUtils.safeParseDouble("1.5"), equalTo(1.5d));
+    assertThat(ConverterUtils.safeParseFloat("0.1"), equalTo(0.1f));
+    assertThat("Invalid double", ConverterUtils.safeParseDouble("1,5"), nullValue());
+  }
+
+  @Test
+  void splitStringAsPrimitiveArrays() {
+    // ASSERT
+    assertThat(
+        ConverterUtils.splitStringAsLongArray("1, 2,3", ","),
+        equalTo(ImmutableLongArray.of(1, 2, 3)));
+    assertThat(
+        "Invalid and empty items are skipped",
+        ConverterUtils.splitStringAsIntArray("1,a,,3,", ","),
+        equalTo(ImmutableIntArray.of(1, 3)));
+    assertThat(
+        ConverterUtils.splitStringAsDoubleArray("1.5::2.5", "::"),
+        equalTo(ImmutableDoubleArray.of(1.5, 2.5)));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinarySnapshotResolverTest {
+
+  @Test
+  void readsCompiledSnapshots(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Path file = dir.resolve("config.snapshot");
+    BinarySnapshot.write(Map.of("a.key", "1", "b.key", "true", "ключ", "значение"), file);
+
+    // ACT
+    BinarySnapshotResolver resolver = new BinarySnapshotResolver(file, true, true);
+    Set<String> loaded = resolver.reload();
+
+    // ASSERT
+    assertThat(loaded, equalTo(Set.of("a.key", "b.key", "ключ")));
+    assertThat(resolver.get("a.key"), equalTo("1"));
+    assertThat(resolver.get("ключ"), equalTo("значение"));
+    assertThat(resolver.get("missing"), nullValue());
+    assertThat(resolver.size(), equalTo(3));
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.FIRST_LOAD));
+  }
+
+  @Test
+  void onlyChangedKeysAreReturned(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Path file = dir.resolve("config.snapshot");
+    BinarySnapshot.write(Map.of("a", "1", "b", "2", "c", "3"), file);
+    BinarySnapshotResolver resolver = new BinarySnapshotResolver(file, true);
+    resolver.reload();
+
+    // ACT
+    BinarySnapshot.write(Map.of("a", "1", "b", "changed", "d", "4"), file);
+    Set<String> modified = resolver.reload();
+    ReloadReason modifiedReason = resolver.lastReloadReason();
+
+    BinarySnapshot.write(Map.of("a", "1", "b", "changed", "d", "4"), file);
+    Set<String> rewritten = resolver.reload();
+
+    // ASSERT
+    assertThat(modified, equalTo(Set.of("b", "c", "d")));
+    assertThat(modifiedReason, equalTo(ReloadReason.MODIFIED));
+    assertThat(resolver.get("c"), nullValue());
+    assertThat(rewritten, empty());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.CONTENT_UNCHANGED));
+  }
+
+  @Test
+  void corruptedSnapshotsAreNotLoaded(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Path file = dir.resolve("config.snapshot");
+    BinarySnapshot.write(Map.of("a", "1"), file);
+    BinarySnapshotResolver resolver = new BinarySnapshotResolver(file, true);
+    resolver.reload();
+
+    // ACT
+    BinarySnapshot.write(Map.of("a", "2"), file);
+    byte[] bytes = Files.readAllBytes(file);
+    // corrupt the last byte of the string data (the value)
+    bytes[bytes.length - 1] = '3';
+    Files.write(file, bytes);
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys, empty());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.FAILED));
+    assertThat(resolver.get("a"), equalTo("1"));
+  }
+
+  @Test
+  void corruptedEntriesAreTreatedAsMissing(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Path file = dir.resolve("config.snapshot");
+    BinarySnapshot.write(Map.of("a", "1", "b", "2"), file);
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+    // point the first entry's value, and the second entry's key, to strings which do not exist
+    bytes.putInt(BinarySnapshot.HEADER_SIZE + Integer.BYTES, Integer.MAX_VALUE);
+    bytes.putInt(BinarySnapshot.HEADER_SIZE + 2 * Integer.BYTES, -1);
+    Files.write(file, bytes.array());
+
+    // ACT
+    BinarySnapshotResolver resolver = new BinarySnapshotResolver(file, true, false);
+    Set<String> keys = Set.copyOf(resolver.reload());
+
+    // ASSERT
+    assertThat(keys, equalTo(Set.of("a")));
+    assertThat(resolver.get("a"), nullValue());
+    assertThat(resolver.get("b"), nullValue());
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfDirectoryResolverTest {
+
+  @Test
+  void mergesFragmentsInLexicalOrder(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Files.writeString(dir.resolve("20-overrides.properties"), "a=2\nc=3");
+    Files.writeString(dir.resolve("10-defaults.properties"), "a=1\nb=1");
+    Files.writeString(dir.resolve("notes.txt"), "a=ignored");
+
+    // ACT
+    ConfDirectoryResolver resolver = new ConfDirectoryResolver(dir, true);
+    Set<String> loaded = resolver.reload();
+
+    // ASSERT
+    assertThat(loaded, equalTo(Set.of("a", "b", "c")));
+    assertThat(resolver.get("a"), equalTo("2"));
+    assertThat(resolver.get("b"), equalTo("1"));
+    assertThat(
+        resolver.fragments(), contains("10-defaults.properties", "20-overrides.properties"));
+  }
+
+  @Test
+  void reloadsReturnOnlyEffectiveChanges(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Files.writeString(dir.resolve("10-defaults.properties"), "a=1\nb=1");
+    Files.writeString(dir.resolve("20-overrides.properties"), "a=2");
+    ConfDirectoryResolver resolver = new ConfDirectoryResolver(dir, true);
+    resolver.reload();
+
+    // ACT
+
+    // the overridden value changes, but its effective value does not
+    Files.writeString(dir.resolve("10-defaults.properties"), "a=10\nb=1");
+    Set<String> overridden = resolver.reload();
+
+    Files.delete(dir.resolve("20-overrides.properties"));
+    Set<String> deleted = resolver.reload();
+
+    // ASSERT
+    assertThat(overridden, empty());
+    assertThat(deleted, equalTo(Set.of("a")));
+    assertThat(resolver.get("a"), equalTo("10"));
+    assertThat(resolver.get("c"), nullValue());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.MODIFIED));
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EnvSnapshotResolverTest {
+
+  @Test
+  void retrievesVariablesByExactOrRelaxedKeys() {
+    // ARRANGE
+    Map<String, String> env = Map.of("DB_POOL_SIZE", "10", "db.pool.size", "20", "PATH", "/bin");
+
+    // ACT
+    EnvSnapshotResolver resolver = new EnvSnapshotResolver(env, "");
+
+    // ASSERT
+    assertThat(resolver.get("DB_POOL_SIZE"), equalTo("10"));
+    assertThat(resolver.get("db-pool-size"), equalTo("10"));
+    assertThat("exact names win over relaxed keys", resolver.get("db.pool.size"), equalTo("20"));
+    assertThat(resolver.get("path"), equalTo("/bin"));
+    assertThat(resolver.get("db.pool"), nullValue());
+  }
+
+  @Test
+  void onlyLoadsVariablesWithThePrefix() {
+    // ARRANGE
+    Map<String, String> env = Map.of("APP_DB_POOL_SIZE", "10", "DB_URL", "jdbc:db", "APP_", "x");
+
+    // ACT
+    EnvSnapshotResolver resolver = new EnvSnapshotResolver(env, "APP_");
+
+    // ASSERT
+    assertThat(resolver.get("db.pool.size"), equalTo("10"));
+    assertThat(resolver.get("DB_POOL_SIZE"), equalTo("10"));
+    assertThat(resolver.get("db.url"), nullValue());
+    assertThat(resolver.size(), equalTo(3));
+  }
+
+  @Test
+  void collidingRelaxedKeysAreResolvedInOrder() {
+    // ARRANGE
+    Map<String, String> env = Map.of("db_url", "lower", "DB_URL", "upper", "Db_Url", "mixed");
+
+    // ACT
+    EnvSnapshotResolver resolver = new EnvSnapshotResolver(env, "");
+
+    // ASSERT
+    assertThat("the first name, in sorted order, wins", resolver.get("db.url"), equalTo("upper"));
+    assertThat(resolver.get("db-url"), equalTo("upper"));
+    assertThat(resolver.id(), not(equalTo(new EnvResolver().id())));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KeyPerFileResolverTest {
+
+  @Test
+  void readsOneKeyPerFile(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Files.writeString(dir.resolve("db.pool.size"), "10\n");
+    Files.writeString(dir.resolve("db.url"), "jdbc:db");
+    Files.writeString(dir.resolve(".hidden"), "ignored");
+    Files.createDirectory(dir.resolve("nested"));
+
+    // ACT
+    KeyPerFileResolver resolver = new KeyPerFileResolver(dir, true);
+    Set<String> loaded = resolver.reload();
+
+    // ASSERT
+    assertThat(loaded, equalTo(Set.of("db.pool.size", "db.url")));
+    assertThat(resolver.get("db.pool.size"), equalTo("10"));
+    assertThat(resolver.get(".hidden"), nullValue());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.FIRST_LOAD));
+  }
+
+  @Test
+  void detectsAtomicSymlinkSwaps(@TempDir Path dir) throws Exception {
+    // ARRANGE
+    Path first = writeVersion(dir, "..v1", "1", "cert");
+    Path second = writeVersion(dir, "..v2", "2", "cert");
+    Files.createSymbolicLink(dir.resolve("..data"), first.getFileName());
+    Files.createSymbolicLink(dir.resolve("value"), Path.of("..data", "value"));
+    Files.createSymbolicLink(dir.resolve("tls.crt"), Path.of("..data", "tls.crt"));
+
+    KeyPerFileResolver resolver = new KeyPerFileResolver(dir, true);
+    resolver.reload();
+
+    // ACT
+    Set<String> unchanged = resolver.reload();
+    ReloadReason unchangedReason = resolver.lastReloadReason();
+
+    // swap the link atomically, as Kubernetes does
+    Path tmp = dir.resolve("..data_tmp");
+    Files.createSymbolicLink(tmp, second.getFileName());
+    Files.move(tmp, dir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+    Set<String> swapped = resolver.reload();
+
+    // ASSERT
+    assertThat(unchanged, empty());
+    assertThat(unchangedReason, equalTo(ReloadReason.UNCHANGED));
+    assertThat("only changed values are returned", swapped, equalTo(Set.of("value")));
+    assertThat(resolver.get("value"), equalTo("2"));
+    assertThat(resolver.get("tls.crt"), equalTo("cert"));
+  }
+
+  private static Path writeVersion(Path dir, String name, String value, String cert)
+      throws Exception {
+    Path version = Files.createDirectory(dir.resolve(name));
+    Files.writeString(version.resolve("value"), value);
+    Files.writeString(version.resolve("tls.crt"), cert);
+    return version;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedPropertyFileResolverTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void readPropertiesWithEscapes() throws IOException {
+    // ARRANGE
+    Path file =
+        writeFile(
+            "# comment\n"
+                + "! another comment\n"
+                + "  simple = value\n"
+                + "colon:value\n"
+                + "spaced value\n"
+                + "escaped\\ key=tab\\tand\\u0041\n"
+                + "multi = first, \\\n"
+                + "        second\n"
+                + "latin1=caf\u00e9\n"
+                + "empty\n"
+                + "simple=overridden\n",
+            Instant.now().minus(1, ChronoUnit.HOURS));
+    MappedPropertyFileResolver resolver = new MappedPropertyFileResolver(file);
+
+    // ACT
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys.size(), equalTo(7));
+    assertThat(resolver.get("simple"), equalTo("overridden"));
+    assertThat(resolver.get("colon"), equalTo("value"));
+    assertThat(resolver.get("spaced"), equalTo("value"));
+    assertThat(resolver.get("escaped key"), equalTo("tab\tandA"));
+    assertThat(resolver.get("multi"), equalTo("first, second"));
+    assertThat(resolver.get("latin1"), equalTo("caf\u00e9"));
+    assertThat(resolver.get("empty"), equalTo(""));
+    assertThat(resolver.get("comment"), nullValue());
+  }
+
+  @Test
+  void reloadReportsChangedKeys() throws IOException {
+    // ARRANGE
+    Path file = writeFile("a=1\nb=2\nc=3\n", Instant.now().minus(1, ChronoUnit.HOURS));
+    MappedPropertyFileResolver resolver = new MappedPropertyFileResolver(file, true);
+    resolver.reload();
+
+    // ACT
+    Path replacement = tempDir.resolve("replacement.properties");
+    Files.writeString(replacement, "a=1\nb=22\nd=4\n");
+    Files.setLastModifiedTime(
+        replacement, FileTime.from(Instant.now().minus(30, ChronoUnit.MINUTES)));
+    Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING);
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys, equalTo(Set.of("b", "c", "d")));
+    assertThat(resolver.get("b"), equalTo("22"));
+    assertThat(resolver.get("c"), nullValue());
+    assertThat(resolver.size(), equalTo(3));
+  }
+
+  @Test
+  void trailingContinuationsDoNotDefineAnEmptyKey() throws IOException {
+    // ARRANGE
+    Path file = writeFile("=x\na=1\n\\\n   ", Instant.now().minus(1, ChronoUnit.HOURS));
+    MappedPropertyFileResolver resolver = new MappedPropertyFileResolver(file);
+
+    // ACT
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys, equalTo(Set.of("", "a")));
+    assertThat(resolver.get(""), equalTo("x"));
+    assertThat(resolver.size(), equalTo(2));
+  }
+
+  @Test
+  void firstLoadReportsAllKeys() throws IOException {
+    // ARRANGE
+    Path file = writeFile("a=1\nb=2\na=3\n", Instant.now().minus(1, ChronoUnit.HOURS));
+    MappedPropertyFileResolver resolver = new MappedPropertyFileResolver(file);
+
+    // ACT
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys.size(), equalTo(2));
+    assertThat(keys.contains("a"), equalTo(true));
+    assertThat(keys.contains("c"), equalTo(false));
+    assertThat(Set.copyOf(keys), equalTo(Set.of("a", "b")));
+  }
+
+  @Test
+  void filesTruncatedInPlaceDoNotFailLookups() throws IOException {
+    // ARRANGE
+    Path file = writeFile("a=1\nb=2\n", Instant.now().minus(1, ChronoUnit.HOURS));
+    MappedPropertyFileResolver resolver = new MappedPropertyFileResolver(file, true);
+    resolver.reload();
+
+    // ACT
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(0);
+    }
+    String value = resolver.get("a");
+    resolver.reload();
+
+    // ASSERT
+    assertThat(value, nullValue());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.MODIFIED));
+    assertThat(resolver.size(), equalTo(0));
+  }
+
+  /** Writes the specified content and sets the file's last modified time. */
+  private Path writeFile(String content, Instant lastModified) throws IOException {
+    Path file = tempDir.resolve("config.properties");
+    Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+    Files.setLastModifiedTime(file, FileTime.from(lastModified));
+    return file;
+  }
+}
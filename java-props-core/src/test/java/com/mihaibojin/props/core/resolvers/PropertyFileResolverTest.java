@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PropertyFileResolverTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void skipUnchangedFiles() throws IOException {
+    // ARRANGE
+    Path file = writeFile("key=value", Instant.now().minus(1, ChronoUnit.HOURS));
+    PropertyFileResolver resolver = new PropertyFileResolver(file, true);
+
+    // ACT
+    Set<String> firstLoad = resolver.reload();
+    ReloadReason firstReason = resolver.lastReloadReason();
+    Set<String> secondLoad = resolver.reload();
+
+    // ASSERT
+    assertThat(firstLoad, equalTo(Set.of("key")));
+    assertThat(firstReason, equalTo(ReloadReason.FIRST_LOAD));
+    assertThat(secondLoad, empty());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.UNCHANGED));
+  }
+
+  @Test
+  void skipTouchedFilesWithSameContent() throws IOException {
+    // ARRANGE
+    Path file = writeFile("key=value", Instant.now().minus(1, ChronoUnit.HOURS));
+    PropertyFileResolver resolver = new PropertyFileResolver(file, true, true);
+    resolver.reload();
+
+    // ACT
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(30, ChronoUnit.MINUTES)));
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys, empty());
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.CONTENT_UNCHANGED));
+  }
+
+  @Test
+  void reloadModifiedFiles() throws IOException {
+    // ARRANGE
+    Path file = writeFile("key=value", Instant.now().minus(1, ChronoUnit.HOURS));
+    PropertyFileResolver resolver = new PropertyFileResolver(file, true);
+    resolver.reload();
+
+    // ACT
+    writeFile("key=updated", Instant.now().minus(30, ChronoUnit.MINUTES));
+    Set<String> keys = resolver.reload();
+
+    // ASSERT
+    assertThat(keys, equalTo(Set.of("key")));
+    assertThat(resolver.get("key"), equalTo("updated"));
+    assertThat(resolver.lastReloadReason(), equalTo(ReloadReason.MODIFIED));
+  }
+
+  @Test
+  void readsAreConsistentDuringReloads() throws Exception {
+    // ARRANGE
+    String first = generateProperties("first");
+    String second = generateProperties("second");
+    Path file = writeFile(first, Instant.now().minus(1, ChronoUnit.HOURS));
+    PropertyFileResolver resolver = new PropertyFileResolver(file, true);
+    resolver.reload();
+
+    // continuously read all the keys, recording any missing values
+    ConcurrentLinkedQueue<String> missing = new ConcurrentLinkedQueue<>();
+    CountDownLatch done = new CountDownLatch(1);
+    Thread reader =
+        new Thread(
+            () -> {
+              while (done.getCount() > 0) {
+                for (int i = 0; i < 1000; i++) {
+                  if (resolver.get("key" + i) == null) {
+                    missing.add("key" + i);
+                  }
+                }
+              }
+            });
+    reader.start();
+
+    // ACT
+    for (int i = 0; i < 50; i++) {
+      writeFile(i % 2 == 0 ? second : first, Instant.now().minus(i + 1, ChronoUnit.MINUTES));
+      resolver.reload();
+    }
+    done.countDown();
+    reader.join();
+
+    // ASSERT
+    assertThat(missing.peek(), nullValue());
+  }
+
+  /** Generates a properties file which defines 1000 keys. */
+  private static String generateProperties(String value) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append("key").append(i).append('=').append(value).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /** Writes the specified content and sets the file's last modified time. */
+  private Path writeFile(String content, Instant lastModified) throws IOException {
+    Path file = tempDir.resolve("config.properties");
+    Files.writeString(file, content);
+    Files.setLastModifiedTime(file, FileTime.from(lastModified));
+    return file;
+  }
+}
@@ -21,6 +21,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 
 class ResolverUtilsTest {
@@ -80,6 +82,19 @@ class ResolverUtilsTest {
     assertThat(resolver, instanceOf(EnvResolver.class));
   }
 
+  @Test
+  void changedKeysReportsAddedUpdatedAndDeletedKeys() {
+    // ARRANGE
+    Map<String, String> previous = Map.of("same", "1", "updated", "2", "deleted", "3");
+    Map<String, String> updated = Map.of("same", "1", "updated", "22", "added", "4");
+
+    // ACT
+    Set<String> changed = ResolverUtils.changedKeys(previous, updated);
+
+    // ASSERT
+    assertThat(changed, equalTo(Set.of("updated", "deleted", "added")));
+  }
+
   @Test
   void verifyInvalidConfigLines() {
     // ASSERT
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.resolvers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SystemPropertySnapshotResolverTest {
+  private static final String KEY = "props.test.snapshot";
+
+  @Test
+  void reloadsReturnOnlyChangedProperties() {
+    // ARRANGE
+    SystemPropertySnapshotResolver resolver = new SystemPropertySnapshotResolver();
+    resolver.reload();
+
+    try {
+      // ACT
+      System.setProperty(KEY, "1");
+      Set<String> added = resolver.reload();
+      Set<String> unchanged = resolver.reload();
+      System.clearProperty(KEY);
+      Set<String> deleted = resolver.reload();
+
+      // ASSERT
+      assertThat(added, equalTo(Set.of(KEY)));
+      assertThat(unchanged, empty());
+      assertThat(deleted, equalTo(Set.of(KEY)));
+      assertThat(resolver.get(KEY), nullValue());
+    } finally {
+      System.clearProperty(KEY);
+    }
+  }
+
+  @Test
+  void reloadsDetectChangesWhichPreserveTheHashCode() {
+    // ARRANGE
+    SystemPropertySnapshotResolver resolver = new SystemPropertySnapshotResolver();
+    System.setProperty(KEY, "Aa");
+
+    try {
+      resolver.reload();
+
+      // ACT
+      // "Aa" and "BB" have the same hash code
+      System.setProperty(KEY, "BB");
+      Set<String> changed = resolver.reload();
+
+      // ASSERT
+      assertThat(changed, equalTo(Set.of(KEY)));
+      assertThat(resolver.get(KEY), equalTo("BB"));
+    } finally {
+      System.clearProperty(KEY);
+    }
+  }
+}
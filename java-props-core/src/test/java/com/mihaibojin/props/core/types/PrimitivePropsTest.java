@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Mihai Bojin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mihaibojin.props.core.types;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.mihaibojin.props.core.Props;
+import com.mihaibojin.props.core.annotations.Nullable;
+import com.mihaibojin.props.core.resolvers.InMemoryResolver;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrimitivePropsTest {
+
+  private InMemoryResolver resolver;
+  private Props props;
+
+  @BeforeEach
+  void setUp() {
+    resolver = new InMemoryResolver();
+    props = Props.factory().withResolver(resolver).refreshInterval(Duration.ofMillis(50)).build();
+  }
+
+  @Test
+  void intPropsReflectUpdates() throws Exception {
+    // ARRANGE
+    resolver.set("int.prop", "1");
+    IntProp prop = props.intProp("int.prop", 0);
+    CompletableFuture<Integer> update = new CompletableFuture<>();
+    prop.onUpdateAsInt(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("int.prop", "2");
+
+    // ASSERT
+    assertThat(update.get(5, TimeUnit.SECONDS), equalTo(2));
+    assertThat(prop.getAsInt(), equalTo(2));
+  }
+
+  @Test
+  void primitivePropsCanBeBuiltWithMetadata() {
+    // ARRANGE
+    resolver.set("int.prop", "1");
+    resolver.set("boolean.prop", "true");
+
+    // ACT
+    IntProp intProp =
+        props
+            .intPropBuilder("int.prop", 0)
+            .description("an int")
+            .isSecret(true)
+            .resolver(resolver.id())
+            .build();
+    BooleanProp booleanProp =
+        props.booleanPropBuilder("boolean.prop", false).isRequired(true).build();
+
+    // ASSERT
+    assertThat(intProp.getAsInt(), equalTo(1));
+    assertThat(intProp.description(), equalTo("an int"));
+    assertThat(intProp.isSecret(), equalTo(true));
+    assertThat(intProp.isRequired(), equalTo(false));
+    assertThat(booleanProp.getAsBoolean(), equalTo(true));
+    assertThat(booleanProp.isRequired(), equalTo(true));
+    assertThat(props.retrieve("int.prop"), sameInstance(intProp));
+  }
+
+  @Test
+  void longPropsReflectUpdates() throws Exception {
+    // ARRANGE
+    resolver.set("long.prop", "1");
+    LongProp prop = props.longProp("long.prop", 0L);
+    CompletableFuture<Long> update = new CompletableFuture<>();
+    prop.onUpdateAsLong(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("long.prop", "2");
+
+    // ASSERT
+    assertThat(update.get(5, TimeUnit.SECONDS), equalTo(2L));
+    assertThat(prop.getAsLong(), equalTo(2L));
+  }
+
+  @Test
+  void doublePropsReflectUpdates() throws Exception {
+    // ARRANGE
+    resolver.set("double.prop", "1.5");
+    DoubleProp prop = props.doubleProp("double.prop", 0.0);
+    CompletableFuture<Double> update = new CompletableFuture<>();
+    prop.onUpdateAsDouble(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("double.prop", "2.5");
+
+    // ASSERT
+    assertThat(update.get(5, TimeUnit.SECONDS), equalTo(2.5));
+    assertThat(prop.getAsDouble(), equalTo(2.5));
+  }
+
+  @Test
+  void booleanPropsReflectUpdates() throws Exception {
+    // ARRANGE
+    resolver.set("boolean.prop", "false");
+    BooleanProp prop = props.booleanProp("boolean.prop", false);
+    CompletableFuture<Boolean> update = new CompletableFuture<>();
+    prop.onUpdateAsBoolean(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("boolean.prop", "true");
+
+    // ASSERT
+    assertThat(update.get(5, TimeUnit.SECONDS), equalTo(true));
+    assertThat(prop.getAsBoolean(), equalTo(true));
+  }
+
+  @Test
+  void unsetPropsRevertToTheirDefault() throws Exception {
+    // ARRANGE
+    resolver.set("int.prop", "1");
+    IntProp prop = props.intProp("int.prop", 7);
+    CompletableFuture<Integer> update = new CompletableFuture<>();
+    prop.onUpdateAsInt(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("int.prop", "not a number");
+
+    // ASSERT
+    assertThat(update.get(5, TimeUnit.SECONDS), equalTo(7));
+    assertThat(prop.getAsInt(), equalTo(7));
+  }
+
+  @Test
+  void versionsAreIncrementedAfterDerivedStateIsSet() throws Exception {
+    // ARRANGE
+    resolver.set("int.prop", "1");
+    AtomicLong versionInAfterSet = new AtomicLong(-1);
+    IntProp prop =
+        new IntProp("int.prop", 0, null, false, false) {
+          @Override
+          protected void afterSet(@Nullable Integer value) {
+            versionInAfterSet.set(version());
+            super.afterSet(value);
+          }
+        };
+    props.bind(prop);
+    CompletableFuture<Integer> update = new CompletableFuture<>();
+    prop.onUpdateAsInt(update::complete, update::completeExceptionally);
+
+    // ACT
+    resolver.set("int.prop", "2");
+    update.get(5, TimeUnit.SECONDS);
+
+    // ASSERT
+    // a reader which observes the new version also observes the derived (unboxed) value
+    assertThat(versionInAfterSet.get(), equalTo(prop.version() - 1));
+  }
+}
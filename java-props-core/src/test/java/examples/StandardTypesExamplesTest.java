@@ -77,6 +77,24 @@ public class StandardTypesExamplesTest {
     assertThat("Expected to read and correctly cast the property", maybeValue, equalTo(1));
   }
 
+  @Test
+  void readPrimitiveInteger() {
+    // initialize a prop which can be read without unboxing
+    int value = props.intProp("an.integer", 0).getAsInt();
+
+    // assert that the value is retrieved
+    assertThat("Expected to read and correctly cast the property", value, equalTo(1));
+  }
+
+  @Test
+  void readPrimitiveWithDefault() {
+    // initialize a prop which is not defined in any resolver
+    long value = props.longProp("a.missing.long", 42L).getAsLong();
+
+    // assert that the default value is returned
+    assertThat("Expected to read the default value", value, equalTo(42L));
+  }
+
   @Test
   void readLong() {
     // initialize a prop and read its value once
@@ -23,13 +23,21 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
+import com.mihaibojin.props.core.DeliveryMode;
+import com.mihaibojin.props.core.OverflowPolicy;
+import com.mihaibojin.props.core.Prop;
 import com.mihaibojin.props.core.Props;
+import com.mihaibojin.props.core.SubscriptionMetrics;
 import com.mihaibojin.props.core.annotations.Nullable;
 import com.mihaibojin.props.core.resolvers.InMemoryResolver;
 import com.mihaibojin.props.core.types.AbstractStringProp;
 import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -73,6 +81,90 @@ public class UpdatesSubscriberExamplesTest {
         equalTo("value" + (elements - 1)));
   }
 
+  @Test
+  void slowSubscribersOnlyReceiveTheLatestValue() {
+    // ARRANGE
+
+    // the consumer takes longer to process an update than the refresh interval
+    AtomicReference<String> latest = new AtomicReference<>();
+    Consumer<String> slowConsumer =
+        value -> {
+          try {
+            Thread.sleep(200);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          latest.set(value);
+        };
+
+    Prop<String> prop = props.prop(KEY).build();
+    prop.onUpdate(slowConsumer, e -> {}, DeliveryMode.LATEST_VALUE);
+
+    // ACT
+    for (int i = 0; i < 10; i++) {
+      resolver.set(KEY, "value" + i);
+    }
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          // intermediate values may be skipped, but the last one is always delivered
+          while (!Objects.equals(latest.get(), "value9")) {
+            Thread.sleep(50);
+          }
+        });
+  }
+
+  @Test
+  void overflowingSubscribersDropTheOldestUpdates() throws Exception {
+    // ARRANGE
+
+    // the consumer blocks until released, while further updates are published
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<String> latest = new AtomicReference<>();
+    Consumer<String> blockedConsumer =
+        value -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          latest.set(value);
+        };
+
+    Prop<String> prop = props.prop(KEY).build();
+    SubscriptionMetrics metrics =
+        prop.onUpdate(blockedConsumer, e -> {}, OverflowPolicy.DROP_OLDEST, 1);
+
+    // ACT
+    for (int i = 0; i < 3; i++) {
+      String value = "value" + i;
+      resolver.set(KEY, value);
+      Assertions.assertTimeout(
+          Duration.ofSeconds(5),
+          () -> {
+            while (!Objects.equals(prop.value(), value)) {
+              Thread.sleep(10);
+            }
+          });
+    }
+    release.countDown();
+
+    // ASSERT
+    Assertions.assertTimeout(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!Objects.equals(latest.get(), "value2")) {
+            Thread.sleep(50);
+          }
+        });
+    // value0 was being delivered, value1 was dropped in favor of value2
+    assertThat(metrics.dropped(), equalTo(1L));
+    assertThat(metrics.delivered(), equalTo(2L));
+    assertThat(metrics.queued(), equalTo(0));
+  }
+
   private class StringProp extends AbstractStringProp {
     protected StringProp(String key) {
       super(key, null, null, false, false);